@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.gcp.common;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Supplier;
+
+/**
+ * Credentials that obtain a new access token from a token source shortly before the current one expires, so clients
+ * running longer than the lifetime of a single token keep working. The refresh runs in the background while the
+ * current token is still valid and blocks requests only once it is about to expire.
+ */
+public class RefreshingCredentials extends GoogleCredentials {
+    public static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+    public static final Duration EXPIRATION_MARGIN = Duration.ofMinutes(1);
+
+    private final transient Supplier<GcpAccessToken> tokenSource;
+
+    public RefreshingCredentials(GcpAccessToken initialToken, Supplier<GcpAccessToken> tokenSource) {
+        super(toAccessToken(initialToken), REFRESH_MARGIN, EXPIRATION_MARGIN);
+        this.tokenSource = tokenSource;
+    }
+
+    @Override
+    public AccessToken refreshAccessToken() throws IOException {
+        try {
+            return toAccessToken(tokenSource.get());
+        } catch (RuntimeException e) {
+            throw new IOException("Error refreshing the access token", e);
+        }
+    }
+
+    private static AccessToken toAccessToken(GcpAccessToken token) {
+        return token != null ? new AccessToken(token.getToken(), new Date(token.getExpiration())) : null;
+    }
+}
@@ -17,11 +17,34 @@ package org.eclipse.edc.gcp.storage;
 public class GcsStoreSchema {
     public static final String TYPE = "GoogleCloudStorage";
     public static final String BUCKET_NAME = "bucket_name";
+    public static final String BUCKET_NAMES = "bucket_names";
     public static final String LOCATION = "location";
     public static final String STORAGE_CLASS = "storage_class";
     public static final String SERVICE_ACCOUNT_NAME = "service_account_name";
     public static final String SERVICE_ACCOUNT_EMAIL = "service_account_email";
     public static final String BLOB_NAME = "blob_name";
+    public static final String COMPRESSION = "compression";
+    public static final String COMPRESSION_LEVEL = "compression_level";
+    public static final String BLOB_NAME_TEMPLATE = "blob_name_template";
+    public static final String BLOB_NAME_HASH_PREFIX_LENGTH = "blob_name_hash_prefix_length";
+    public static final String MANIFEST_NAME = "manifest_name";
+    public static final String CHECKSUM_MD5 = "checksum_md5";
+    public static final String OUTPUT_FORMAT = "output_format";
+    public static final String TARGET_FILE_SIZE = "target_file_size";
+    public static final String MAX_FILE_ROWS = "max_file_rows";
+    public static final String MAX_FILE_AGE_SECONDS = "max_file_age_seconds";
+    public static final String FILE_NAME_TEMPLATE = "file_name_template";
+    public static final String ROW_GROUP_SIZE = "row_group_size";
+    public static final String SPOOL_TO_DISK = "spool_to_disk";
+    public static final String IF_EXISTS = "if_exists";
+    public static final String CONTENT_ADDRESSED = "content_addressed";
+    public static final String CONTENT_PREFIX = "content_prefix";
+    public static final String BLOB_PREFIX = "blob_prefix";
+    public static final String STORAGE_TRANSFER_SERVICE = "storage_transfer_service";
+
+    public static final String COMPRESSION_GZIP = "gzip";
+    public static final String IF_EXISTS_FAIL = "fail";
+    public static final String IF_EXISTS_SKIP_IDENTICAL = "skip_identical";
 
     private GcsStoreSchema() {
     }
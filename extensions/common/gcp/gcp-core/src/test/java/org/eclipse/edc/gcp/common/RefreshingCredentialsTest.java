@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.gcp.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshingCredentialsTest {
+
+    private static final URI STORAGE_URI = URI.create("https://storage.googleapis.com");
+
+    @Test
+    void getRequestMetadata_usesInitialTokenWhileValid() throws IOException {
+        var refreshes = new AtomicInteger();
+        var credentials = new RefreshingCredentials(token("initial", Duration.ofHours(1)), () -> {
+            refreshes.incrementAndGet();
+            return token("refreshed", Duration.ofHours(1));
+        });
+
+        assertThat(credentials.getRequestMetadata(STORAGE_URI).get("Authorization")).isEqualTo(List.of("Bearer initial"));
+        assertThat(refreshes).hasValue(0);
+    }
+
+    @Test
+    void getRequestMetadata_refreshesExpiringToken() throws IOException {
+        var credentials = new RefreshingCredentials(token("initial", Duration.ofSeconds(30)), () -> token("refreshed", Duration.ofHours(1)));
+
+        assertThat(credentials.getRequestMetadata(STORAGE_URI).get("Authorization")).isEqualTo(List.of("Bearer refreshed"));
+    }
+
+    @Test
+    void refreshAccessToken_wrapsTokenSourceFailure() {
+        var credentials = new RefreshingCredentials(token("initial", Duration.ofHours(1)), () -> {
+            throw new GcpException("no token");
+        });
+
+        assertThatThrownBy(credentials::refreshAccessToken).isInstanceOf(IOException.class).hasRootCauseMessage("no token");
+    }
+
+    private GcpAccessToken token(String value, Duration lifetime) {
+        return new GcpAccessToken(value, System.currentTimeMillis() + lifetime.toMillis());
+    }
+}
@@ -17,11 +17,14 @@ dependencies {
     // api(project(":spi:data-plane:data-plane-spi"))
     implementation(libs.edc.spi.dataplane)
     implementation(libs.googlecloud.bigquery)
+    implementation(libs.googlecloud.bigquery.storage)
+    implementation(libs.avro)
     // api(project(":spi:data-plane:data-plane-http-spi"))
     // api(project(":spi:common:http-spi"))
     // implementation(project(":core:common:util"))
     // implementation(project(":core:data-plane:data-plane-util"))
 
+    testImplementation(libs.edc.junit)
     // testImplementation(project(":core:common:junit"))
     // testImplementation(project(":core:data-plane:data-plane-core"))
     // testImplementation(libs.restAssured)
@@ -0,0 +1,232 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ImpersonatedCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryOptions;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read.StorageReadClient;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read.StorageReadClientFactory;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out BigQuery clients shared by all sources and sinks of the connector, one per project, impersonated service
+ * account and service account key file, together with a Storage Read API client of the same credentials. The
+ * credentials of a client are created once and refreshed in the background before their access token expires, so
+ * transfers neither read key files nor wait for a token refresh or a new gRPC channel.
+ */
+public class BigQueryClientProvider {
+    private static final List<String> IAM_SCOPES = List.of("https://www.googleapis.com/auth/iam");
+    private static final List<String> BIGQUERY_SCOPES = List.of("https://www.googleapis.com/auth/bigquery");
+    private static final int IMPERSONATION_LIFETIME_SECONDS = 3600;
+
+    private final Map<Key, Client> clients = new ConcurrentHashMap<>();
+    private final StorageReadClientFactory readClientFactory;
+    private final Duration refreshMargin;
+    private final Clock clock;
+    private final Monitor monitor;
+
+    public BigQueryClientProvider(StorageReadClientFactory readClientFactory, Duration refreshMargin, Clock clock, Monitor monitor) {
+        this.readClientFactory = readClientFactory;
+        this.refreshMargin = refreshMargin;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Refreshes the credentials of all clients every interval on the scheduler.
+     */
+    public void scheduleRefresh(ScheduledExecutorService scheduler, Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::refreshCredentials, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the client of the project that authenticates as the impersonated service account, with the key file, or
+     * with the application default credentials if neither is given.
+     *
+     * @throws EdcException if the credentials cannot be created.
+     */
+    public BigQuery getClient(String project, @Nullable String serviceAccountName, @Nullable String serviceAccountFile) {
+        return client(project, serviceAccountName, serviceAccountFile).bigQuery;
+    }
+
+    /**
+     * Returns the credentials of the client, {@code null} for the application default credentials.
+     *
+     * @throws EdcException if the credentials cannot be created.
+     */
+    public @Nullable GoogleCredentials getCredentials(String project, @Nullable String serviceAccountName, @Nullable String serviceAccountFile) {
+        return client(project, serviceAccountName, serviceAccountFile).credentials;
+    }
+
+    /**
+     * Returns the Storage Read API client with the credentials of {@link #getClient}. The client is shared and must
+     * not be closed by its users.
+     *
+     * @throws EdcException if the credentials or the client cannot be created.
+     */
+    public StorageReadClient getReadClient(String project, @Nullable String serviceAccountName, @Nullable String serviceAccountFile) {
+        var client = client(project, serviceAccountName, serviceAccountFile);
+        synchronized (client) {
+            if (client.readClient == null) {
+                try {
+                    client.readClient = readClientFactory.create(client.credentials);
+                } catch (IOException e) {
+                    throw new EdcException("Error creating BigQuery Storage read client", e);
+                }
+            }
+            return client.readClient;
+        }
+    }
+
+    /**
+     * Closes the Storage Read API clients, the provider must not be used afterwards.
+     */
+    public void close() {
+        clients.values().forEach(client -> {
+            synchronized (client) {
+                if (client.readClient != null) {
+                    client.readClient.close();
+                    client.readClient = null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Refreshes all credentials whose access token expires within the refresh margin, errors are logged and retried
+     * with the next refresh.
+     */
+    void refreshCredentials() {
+        clients.forEach((key, client) -> {
+            if (client.credentials == null) {
+                return;
+            }
+            var token = client.credentials.getAccessToken();
+            var expiration = token != null ? token.getExpirationTime() : null;
+            if (expiration != null && expiration.toInstant().isAfter(clock.instant().plus(refreshMargin))) {
+                return;
+            }
+            try {
+                client.credentials.refresh();
+            } catch (IOException | RuntimeException e) {
+                monitor.warning("Error refreshing BigQuery credentials of " + key, e);
+            }
+        });
+    }
+
+    private Client client(String project, @Nullable String serviceAccountName, @Nullable String serviceAccountFile) {
+        var key = new Key(project, blankToNull(serviceAccountName), blankToNull(serviceAccountFile));
+        return clients.computeIfAbsent(key, this::createClient);
+    }
+
+    private Client createClient(Key key) {
+        GoogleCredentials credentials;
+        try {
+            credentials = createCredentials(key);
+        } catch (IOException e) {
+            throw new EdcException("Error creating BigQuery credentials of " + key, e);
+        }
+        var options = BigQueryOptions.newBuilder().setProjectId(key.project);
+        if (credentials != null) {
+            options.setCredentials(credentials);
+        }
+        monitor.debug("Created BigQuery client of " + key);
+        return new Client(options.build().getService(), credentials);
+    }
+
+    private @Nullable GoogleCredentials createCredentials(Key key) throws IOException {
+        if (key.serviceAccountName != null) {
+            var sourceCredentials = GoogleCredentials.getApplicationDefault().createScoped(IAM_SCOPES);
+            return ImpersonatedCredentials.create(sourceCredentials, key.serviceAccountName, null, BIGQUERY_SCOPES, IMPERSONATION_LIFETIME_SECONDS);
+        } else if (key.serviceAccountFile != null) {
+            try (var accountKeyStream = new FileInputStream(key.serviceAccountFile)) {
+                return ServiceAccountCredentials.fromStream(accountKeyStream).createScoped(BIGQUERY_SCOPES);
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable String blankToNull(@Nullable String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static class Client {
+        private final BigQuery bigQuery;
+        private final GoogleCredentials credentials;
+        private StorageReadClient readClient;
+
+        Client(BigQuery bigQuery, @Nullable GoogleCredentials credentials) {
+            this.bigQuery = bigQuery;
+            this.credentials = credentials;
+        }
+    }
+
+    private static final class Key {
+        private final String project;
+        private final String serviceAccountName;
+        private final String serviceAccountFile;
+
+        Key(String project, @Nullable String serviceAccountName, @Nullable String serviceAccountFile) {
+            this.project = project;
+            this.serviceAccountName = serviceAccountName;
+            this.serviceAccountFile = serviceAccountFile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(project, other.project) && Objects.equals(serviceAccountName, other.serviceAccountName) &&
+                    Objects.equals(serviceAccountFile, other.serviceAccountFile);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(project, serviceAccountName, serviceAccountFile);
+        }
+
+        @Override
+        public String toString() {
+            var description = "project " + project;
+            if (serviceAccountName != null) {
+                description += ", service account " + serviceAccountName;
+            }
+            if (serviceAccountFile != null) {
+                description += ", key file " + serviceAccountFile;
+            }
+            return description;
+        }
+    }
+}
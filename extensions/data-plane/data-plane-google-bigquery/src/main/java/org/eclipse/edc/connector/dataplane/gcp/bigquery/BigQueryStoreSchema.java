@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery;
+
+/**
+ * Properties of BigQuery data addresses read by this data plane in addition to the ones of the BigQuery data address.
+ * They are declared here because {@code BigQueryDataAddress} belongs to the bigquery-spi module, which is not part of
+ * this repository.
+ */
+public final class BigQueryStoreSchema {
+
+    public static final String READ_MODE = "read_mode";
+    public static final String READ_MODE_QUERY = "query";
+    public static final String READ_MODE_STORAGE_API = "storage_api";
+    public static final String READ_STREAMS = "read_streams";
+    public static final String CHUNK_ROWS = "chunk_rows";
+    public static final String CHUNK_SIZE = "chunk_size";
+    public static final String PAGE_SIZE = "page_size";
+    public static final String SELECTED_FIELDS = "selected_fields";
+    public static final String PARTITION_COLUMN = "partition_column";
+    public static final String PARTITION_FROM = "partition_from";
+    public static final String PARTITION_TO = "partition_to";
+    /**
+     * Column whose values select the rows of an incremental extraction. Only rows strictly greater than the stored
+     * watermark are read, so the column must grow with every row that lands in the table, like an ingestion timestamp
+     * or a sequence number. A row that lands later with a value equal to or below the watermark is never extracted.
+     */
+    public static final String WATERMARK_COLUMN = "watermark_column";
+    public static final String WATERMARK_KEY = "watermark_key";
+
+    private BigQueryStoreSchema() {
+    }
+}
@@ -18,17 +18,29 @@ import org.eclipse.edc.connector.dataplane.bigquery.params.BigQueryRequestParams
 import org.eclipse.edc.connector.dataplane.bigquery.pipeline.BigQueryDataSinkFactory;
 import org.eclipse.edc.connector.dataplane.bigquery.pipeline.BigQueryDataSourceFactory;
 import org.eclipse.edc.connector.dataplane.bigquery.spi.BigQueryRequestParamsProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.BigQueryJobPoller;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read.GoogleStorageReadClient;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.FileWatermarkStore;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.PendingWatermarks;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataTransferExecutorServiceContainer;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.PipelineService;
+import org.eclipse.edc.connector.dataplane.spi.store.DataPlaneStore;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provides;
-// import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
 
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 /**
  * Provides support for reading data from an BigQuery endpoint and sending data to an BigQuery endpoint.
  */
@@ -37,18 +49,48 @@ import org.eclipse.edc.spi.types.TypeManager;
 public class DataPlaneBigQueryExtension implements ServiceExtension {
     public static final String NAME = "Data Plane BigQuery";
 
+    @Setting(value = "Durable local directory the watermarks of incremental extractions are stored in, incremental extractions are refused without it",
+            required = false)
+    public static final String WATERMARK_DIRECTORY = "edc.gcp.bigquery.watermark.directory";
+
+    @Setting(value = "Delay in milliseconds before the status of a BigQuery job is polled the first time, doubled after every poll",
+            type = "long", defaultValue = "" + DEFAULT_JOB_POLL_INITIAL_DELAY_MS, required = false)
+    public static final String JOB_POLL_INITIAL_DELAY = "edc.gcp.bigquery.job.poll.initial.delay.ms";
+
+    @Setting(value = "Maximum delay in milliseconds between two polls of the status of a BigQuery job", type = "long",
+            defaultValue = "" + DEFAULT_JOB_POLL_MAX_DELAY_MS, required = false)
+    public static final String JOB_POLL_MAX_DELAY = "edc.gcp.bigquery.job.poll.max.delay.ms";
+
+    public static final long DEFAULT_JOB_POLL_INITIAL_DELAY_MS = 250;
+    public static final long DEFAULT_JOB_POLL_MAX_DELAY_MS = 10_000;
+
+    private static final Duration CREDENTIALS_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration CREDENTIALS_REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final Duration WATERMARK_COMMIT_INTERVAL = Duration.ofSeconds(10);
+    private static final int DML_SUBMISSION_THREADS = 4;
+
     @Inject
     private PipelineService pipelineService;
 
     @Inject
     private DataTransferExecutorServiceContainer executorContainer;
 
+    @Inject
+    private DataPlaneStore dataPlaneStore;
+
     @Inject
     private Vault vault;
 
     @Inject
     private TypeManager typeManager;
 
+    private BigQueryClientProvider clientProvider;
+    private ExecutorService readExecutorService;
+    private ScheduledExecutorService jobPollingExecutorService;
+    private ExecutorService dmlExecutorService;
+    private ScheduledExecutorService credentialsRefreshExecutorService;
+    private ScheduledExecutorService watermarkCommitExecutorService;
+
     @Override
     public String name() {
         return NAME;
@@ -62,10 +104,61 @@ public class DataPlaneBigQueryExtension implements ServiceExtension {
         var paramsProvider = new BigQueryRequestParamsProviderImpl(vault, typeManager);
         context.registerService(BigQueryRequestParamsProvider.class, paramsProvider);
 
-        var sourceFactory = new BigQueryDataSourceFactory(monitor, paramsProvider);
+        // Sources and sinks share one client per project and identity, whose credentials are refreshed in the background.
+        clientProvider = new BigQueryClientProvider(GoogleStorageReadClient::create, CREDENTIALS_REFRESH_MARGIN, Clock.systemUTC(), monitor);
+        credentialsRefreshExecutorService = Executors.newSingleThreadScheduledExecutor();
+        clientProvider.scheduleRefresh(credentialsRefreshExecutorService, CREDENTIALS_REFRESH_INTERVAL);
+
+        readExecutorService = Executors.newCachedThreadPool();
+        // A lost watermark makes the next run extract and deliver every row again, so there is no default in a directory
+        // that may be wiped on restart.
+        FileWatermarkStore watermarkStore = null;
+        PendingWatermarks pendingWatermarks = null;
+        var watermarkDirectory = context.getSetting(WATERMARK_DIRECTORY, null);
+        if (watermarkDirectory != null) {
+            watermarkStore = new FileWatermarkStore(Path.of(watermarkDirectory), typeManager.getMapper());
+            if (watermarkStore.isEmpty()) {
+                monitor.warning(String.format("Watermark directory %s holds no watermarks, the first incremental extraction of every source reads all rows. " +
+                        "If watermarks were stored before, the directory is not durable and rows will be delivered again", watermarkDirectory));
+            }
+            // Watermarks are saved once the data flow of their transfer completed, the sink may still fail after the source was read.
+            pendingWatermarks = new PendingWatermarks(watermarkStore, dataPlaneStore, monitor);
+            watermarkCommitExecutorService = Executors.newSingleThreadScheduledExecutor();
+            pendingWatermarks.scheduleCommit(watermarkCommitExecutorService, WATERMARK_COMMIT_INTERVAL);
+        }
+        jobPollingExecutorService = Executors.newSingleThreadScheduledExecutor();
+        var jobPoller = new BigQueryJobPoller(jobPollingExecutorService,
+                Duration.ofMillis(context.getSetting(JOB_POLL_INITIAL_DELAY, DEFAULT_JOB_POLL_INITIAL_DELAY_MS)),
+                Duration.ofMillis(context.getSetting(JOB_POLL_MAX_DELAY, DEFAULT_JOB_POLL_MAX_DELAY_MS)), monitor);
+        var sourceFactory = new BigQueryDataSourceFactory(monitor, paramsProvider, readExecutorService, watermarkStore, pendingWatermarks, jobPoller, clientProvider);
         pipelineService.registerFactory(sourceFactory);
 
-        var sinkFactory = new BigQueryDataSinkFactory(executorContainer.getExecutorService(), monitor, paramsProvider);
+        // DML statements are submitted on a pool of their own, the single poller thread must not block on job creation.
+        dmlExecutorService = Executors.newFixedThreadPool(DML_SUBMISSION_THREADS);
+        var sinkFactory = new BigQueryDataSinkFactory(executorContainer.getExecutorService(), monitor, paramsProvider, jobPoller,
+                dmlExecutorService, clientProvider);
         pipelineService.registerFactory(sinkFactory);
     }
+
+    @Override
+    public void shutdown() {
+        if (readExecutorService != null) {
+            readExecutorService.shutdownNow();
+        }
+        if (jobPollingExecutorService != null) {
+            jobPollingExecutorService.shutdownNow();
+        }
+        if (dmlExecutorService != null) {
+            dmlExecutorService.shutdownNow();
+        }
+        if (credentialsRefreshExecutorService != null) {
+            credentialsRefreshExecutorService.shutdownNow();
+        }
+        if (watermarkCommitExecutorService != null) {
+            watermarkCommitExecutorService.shutdownNow();
+        }
+        if (clientProvider != null) {
+            clientProvider.close();
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Writes the Avro rows of the Storage Read API as the same JSON objects {@link FieldValueJsonEncoder} writes for rows
+ * of the REST API, straight from the record fields. The plan of the fields is computed once from the BigQuery schema
+ * and the Avro schema of the read session. Values Avro encodes differently are converted to the text BigQuery returns
+ * over REST: numerics to plain decimals, bytes to Base64, timestamps to seconds since the epoch, dates and times to
+ * their ISO form. The generator and its buffer are reused for every row, not thread safe.
+ */
+class AvroRecordJsonEncoder implements RowEncoder<GenericRecord> {
+
+    private static final SerializedString ROW_INDEX = new SerializedString("__row__");
+
+    private final FieldPlan[] plan;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final JsonGenerator generator;
+
+    /**
+     * Creates an encoder of the fields, which have to be in the Avro schema of the rows.
+     *
+     * @throws IllegalArgumentException if a field is not in the Avro schema.
+     */
+    AvroRecordJsonEncoder(JsonFactory jsonFactory, FieldList fields, Schema avroSchema) throws IOException {
+        this.plan = plan(fields, avroSchema);
+        this.generator = jsonFactory.createGenerator(buffer);
+        // every row is a root value, the buffer holds only one of them at a time
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void encode(GenericRecord row, long rowIndex) throws IOException {
+        buffer.reset();
+        generator.writeStartObject();
+        generator.writeFieldName(ROW_INDEX);
+        generator.writeString(Long.toString(rowIndex));
+        writeFields(plan, row);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    public int size() {
+        return buffer.size();
+    }
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+        buffer.writeTo(output);
+    }
+
+    private void writeFields(FieldPlan[] fields, GenericRecord record) throws IOException {
+        for (var field : fields) {
+            generator.writeFieldName(field.name);
+            writeValue(field, record.get(field.position));
+        }
+    }
+
+    private void writeValue(FieldPlan field, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (field.repeated) {
+            generator.writeStartArray();
+            for (var element : (Collection<?>) value) {
+                writeSingleValue(field, element);
+            }
+            generator.writeEndArray();
+        } else {
+            writeSingleValue(field, value);
+        }
+    }
+
+    private void writeSingleValue(FieldPlan field, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        switch (field.kind) {
+            case INTEGER -> generator.writeNumber((Long) value);
+            case FLOAT -> generator.writeNumber((Double) value);
+            case BOOLEAN -> generator.writeBoolean((Boolean) value);
+            case RECORD -> {
+                generator.writeStartObject();
+                writeFields(field.subFields, (GenericRecord) value);
+                generator.writeEndObject();
+            }
+            case DECIMAL -> generator.writeString(decimal((ByteBuffer) value, field.scale));
+            case BYTES -> generator.writeString(Base64.getEncoder().encodeToString(bytes((ByteBuffer) value)));
+            case TIMESTAMP -> generator.writeString(BigDecimal.valueOf((Long) value, 6).toPlainString());
+            case DATE -> generator.writeString(LocalDate.ofEpochDay((Integer) value).toString());
+            case TIME -> generator.writeString(LocalTime.ofNanoOfDay((Long) value * 1000).toString());
+            default -> generator.writeString(value.toString());
+        }
+    }
+
+    private static String decimal(ByteBuffer value, int scale) {
+        var decimal = new BigDecimal(new BigInteger(bytes(value)), scale).stripTrailingZeros();
+        return decimal.signum() == 0 ? "0" : decimal.toPlainString();
+    }
+
+    private static byte[] bytes(ByteBuffer value) {
+        var bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static FieldPlan[] plan(FieldList fields, Schema avroSchema) {
+        var plan = new FieldPlan[fields.size()];
+        for (var index = 0; index < plan.length; index++) {
+            var field = fields.get(index);
+            var avroField = avroSchema.getField(field.getName());
+            if (avroField == null) {
+                throw new IllegalArgumentException("Field " + field.getName() + " is not in the rows read");
+            }
+            plan[index] = new FieldPlan(field, avroField);
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the schema of the values, without the null of nullable fields and the array of repeated ones.
+     */
+    private static Schema valueSchema(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            return valueSchema(schema.getTypes().stream()
+                    .filter(type -> type.getType() != Schema.Type.NULL)
+                    .findFirst()
+                    .orElseThrow());
+        }
+        return schema.getType() == Schema.Type.ARRAY ? valueSchema(schema.getElementType()) : schema;
+    }
+
+    private enum Kind {
+        INTEGER,
+        FLOAT,
+        BOOLEAN,
+        RECORD,
+        DECIMAL,
+        BYTES,
+        TIMESTAMP,
+        DATE,
+        TIME,
+        STRING
+    }
+
+    private static class FieldPlan {
+        private final SerializedString name;
+        private final int position;
+        private final Kind kind;
+        private final boolean repeated;
+        private final int scale;
+        private final FieldPlan[] subFields;
+
+        FieldPlan(Field field, Schema.Field avroField) {
+            var schema = valueSchema(avroField.schema());
+            name = new SerializedString(field.getName());
+            position = avroField.pos();
+            kind = switch (field.getType().getStandardType()) {
+                case INT64 -> Kind.INTEGER;
+                case FLOAT64 -> Kind.FLOAT;
+                case BOOL -> Kind.BOOLEAN;
+                case STRUCT -> Kind.RECORD;
+                case NUMERIC, BIGNUMERIC -> Kind.DECIMAL;
+                case BYTES -> Kind.BYTES;
+                case TIMESTAMP -> Kind.TIMESTAMP;
+                case DATE -> Kind.DATE;
+                case TIME -> Kind.TIME;
+                default -> Kind.STRING;
+            };
+            repeated = field.getMode() == Field.Mode.REPEATED;
+            scale = schema.getLogicalType() instanceof LogicalTypes.Decimal decimal ? decimal.getScale() : 0;
+            subFields = kind == Kind.RECORD ? plan(field.getSubFields(), schema) : null;
+        }
+    }
+}
@@ -14,7 +14,9 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
 
-import java.io.FileInputStream;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryClientProvider;
+import org.eclipse.edc.spi.EdcException;
+
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -22,12 +24,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
 /**
  * Writes data in a streaming fashion to an HTTP endpoint.
  */
 public class BigQueryDataSink extends ParallelSink {
     private static final StreamResult<Void> ERROR_WRITING_DATA = StreamResult.error("Error writing data");
+    // DML statements queued but not done yet, a transfer thread waits once that many are pending.
+    private static final int MAX_PENDING_DML = 64;
     private BigQueryRequestParams params;
 
     private enum TransferType {
@@ -39,6 +47,11 @@ public class BigQueryDataSink extends ParallelSink {
     private final ObjectMapper objectMapper = new ObjectMapper();
     private BigQuery bigquery = null;
     private TableId tableId = null;
+    private BigQueryJobPoller jobPoller;
+    private ExecutorService dmlExecutorService;
+    private BigQueryClientProvider clientProvider;
+    private CompletableFuture<Void> pendingDml = CompletableFuture.completedFuture(null);
+    private final Semaphore pendingDmlPermits = new Semaphore(MAX_PENDING_DML);
 
     synchronized void initBigQuery() {
         if (bigquery != null && tableId != null) {
@@ -47,46 +60,57 @@ public class BigQueryDataSink extends ParallelSink {
         }
 
         try {
-            var bqBuilder = BigQueryOptions.newBuilder().setProjectId(params.getProject());
-            if (params.getServiceAccountName() != null && !params.getServiceAccountName().isEmpty()) {
-                GoogleCredentials sourceCredentials = GoogleCredentials.getApplicationDefault();
-                sourceCredentials.createScoped(Arrays.asList("https://www.googleapis.com/auth/iam"));
-                ImpersonatedCredentials targetCredentials = ImpersonatedCredentials.create(sourceCredentials, params.getServiceAccountName(), null,
-                    Arrays.asList("https://www.googleapis.com/auth/bigquery"), 300);
-                bqBuilder.setCredentials(targetCredentials);
-            } else if (params.getServiceAccountFile() != null && !params.getServiceAccountFile().isEmpty()) {                var accountKeyStream = new FileInputStream(params.getServiceAccountFile());
-                bqBuilder.setCredentials(ServiceAccountCredentials.fromStream(accountKeyStream));
-                accountKeyStream.close();
-            }
-            bigquery = bqBuilder.build().getService();
+            bigquery = clientProvider.getClient(params.getProject(), params.getServiceAccountName(), params.getServiceAccountFile());
             tableId = TableId.of(params.getDataset(), params.getTable());
             monitor.info("BQ Init Done");
-        } catch (IOException ioException) {
-            monitor.severe((ioException.getMessage()));
+        } catch (EdcException edcException) {
+            monitor.severe(edcException.getMessage());
         }
     }
 
-    // TODO merge multiple rows and create a single query for them to speed up DML.
-    void addRow(String text, TransferType transferType) throws JsonProcessingException, InterruptedException {
-        HashMap<String, String> rowMap = new HashMap<String, String>();
-        rowMap = objectMapper.readValue(text, HashMap.class);
-        rowMap.remove("__row__");
-
+    /**
+     * Inserts the rows of a part, a part may hold a single row or a chunk of NDJSON rows. Streaming inserts send all
+     * rows of the part with a single request.
+     */
+    void addRows(List<String> rows, TransferType transferType) throws JsonProcessingException, InterruptedException {
+        if (rows.isEmpty()) {
+            return;
+        }
         if (transferType == TransferType.STREAMING) {
             // Streaming request not available for the free tier.
-            InsertAllResponse response =
-                    bigquery.insertAll(InsertAllRequest.newBuilder(tableId).addRow(rowMap).build());
+            var request = InsertAllRequest.newBuilder(tableId);
+            for (var row : rows) {
+                request.addRow(readRow(row));
+            }
+            InsertAllResponse response = bigquery.insertAll(request.build());
 
             if (response.hasErrors()) {
                 monitor.severe("Error while inserting");
             } else {
-                monitor.info("Streaming Insert OK");
+                monitor.info("Streaming Insert OK: " + rows.size() + " rows");
+            }
+        } else {
+            for (var row : rows) {
+                addRow(row, transferType);
             }
-        } else if (transferType == TransferType.DML) {
+        }
+    }
+
+    private Map<String, Object> readRow(String text) throws JsonProcessingException {
+        Map<String, Object> rowMap = objectMapper.readValue(text, HashMap.class);
+        rowMap.remove("__row__");
+        return rowMap;
+    }
+
+    // TODO merge multiple rows and create a single query for them to speed up DML.
+    void addRow(String text, TransferType transferType) throws JsonProcessingException, InterruptedException {
+        var rowMap = readRow(text);
+
+        if (transferType == TransferType.DML) {
             // DML  not available for the free tier.
             String query = String.format("INSERT INTO %s.%s.%s(", params.getProject(), params.getDataset(), params.getTable());
             int index = 0;
-            for (Map.Entry<String, String> entry : rowMap.entrySet()) {
+            for (Map.Entry<String, Object> entry : rowMap.entrySet()) {
                 if (index > 0) {
                     query += ",";
                 }
@@ -95,7 +119,7 @@ public class BigQueryDataSink extends ParallelSink {
             }
             query += ") VALUES(";
             index = 0;
-            for (Map.Entry<String, String> entry : rowMap.entrySet()) {
+            for (Map.Entry<String, Object> entry : rowMap.entrySet()) {
                 if (index > 0) {
                     query += ",";
                 }
@@ -106,42 +130,65 @@ public class BigQueryDataSink extends ParallelSink {
                 } else if (field.getType() == LegacySQLTypeName.INTEGER) {
                     query += entry.getValue();
                 } else if (field.getType() == LegacySQLTypeName.TIMESTAMP) {
-                    Float timestampValue = Float.parseFloat(entry.getValue());
+                    Float timestampValue = Float.parseFloat(String.valueOf(entry.getValue()));
                     query += "TIMESTAMP_SECONDS(" + timestampValue.intValue() + ")";
                 }
                 ++index;
             }
             query += ")";
             // monitor.info("INSERT query: " + query);
-            QueryJobConfiguration queryConfig =
-                    QueryJobConfiguration.newBuilder(query)
-                            // Use standard SQL syntax for queries.
-                            // See: https://cloud.google.com/bigquery/sql-reference/
-                            .setUseLegacySql(false)
-                            .build();
-
-            // Create a job ID so that we can safely retry.
-            JobId jobId = JobId.of(UUID.randomUUID().toString());
-            Job queryJob = bigquery.create(JobInfo.newBuilder(queryConfig).setJobId(jobId).build());
-
-            // Wait for the query to complete.
-            queryJob = queryJob.waitFor();
-
-            // Check for errors
-            if (queryJob == null) {
-                throw new RuntimeException("Job no longer exists");
-            } else if (queryJob.getStatus().getError() != null) {
-                // You can also look at queryJob.getStatus().getExecutionErrors() for all
-                // errors, not just the latest one.
-                throw new RuntimeException(queryJob.getStatus().getError().toString());
+            // The statements still run one after the other, but the next one is submitted when the poller reports the
+            // previous one done instead of a transfer thread waiting for it. A full queue holds the transfer back until
+            // a statement is done, so a fast source cannot queue up the whole table in memory. The blocking submission
+            // of the next statement runs on the DML executor, the poller thread only requests the status of jobs.
+            var statement = query;
+            pendingDmlPermits.acquire();
+            synchronized (this) {
+                pendingDml = pendingDml.thenComposeAsync(ignored -> insert(statement), dmlExecutorService)
+                        .whenComplete((ignored, throwable) -> pendingDmlPermits.release());
             }
-
-            monitor.info("DML Insert OK");
         } else {
             // No transfer.
         }
     }
 
+    private CompletableFuture<Void> insert(String query) {
+        QueryJobConfiguration queryConfig =
+                QueryJobConfiguration.newBuilder(query)
+                        // Use standard SQL syntax for queries.
+                        // See: https://cloud.google.com/bigquery/sql-reference/
+                        .setUseLegacySql(false)
+                        .build();
+
+        // Create a job ID so that we can safely retry.
+        JobId jobId = JobId.of(UUID.randomUUID().toString());
+        Job queryJob = bigquery.create(JobInfo.newBuilder(queryConfig).setJobId(jobId).build());
+        return jobPoller.whenDone(queryJob).thenAccept(job -> monitor.info("DML Insert OK"));
+    }
+
+    /**
+     * Completes once all parts are transferred and the DML statements they queued are done.
+     */
+    @Override
+    public CompletableFuture<StreamResult<Void>> transfer(DataSource source) {
+        return super.transfer(source).thenCompose(result -> {
+            if (result.failed()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            CompletableFuture<Void> dml;
+            synchronized (this) {
+                dml = pendingDml;
+            }
+            return dml.handle((ignored, throwable) -> {
+                if (throwable == null) {
+                    return StreamResult.<Void>success();
+                }
+                monitor.severe("Error inserting rows with DML", throwable);
+                return StreamResult.<Void>error("Error inserting rows with DML: " + throwable.getMessage());
+            });
+        });
+    }
+
     @Override
     protected StreamResult<Void> transferParts(List<DataSource.Part> parts) {
         // monitor.info("BigQueryDataSink transferParts (" + params.getRequest().getId() + "): project=" + params.getProject() + ", " + parts.size() + " parts");
@@ -164,24 +211,23 @@ public class BigQueryDataSink extends ParallelSink {
             try (var inputStream = part.openStream()) {
                 String text = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
                 // monitor.info("BigQueryDataSink transferParts: part '" + part.name() + "' content is " + text);
-                if (part.name() == "schema") {
+                if ("schema".equals(part.name())) {
                     // monitor.info("BigQueryDataSink transferParts: schema is " + text);
                     if (schema != null) {
                         monitor.severe("ERROR Schema already set");
                     } else {
                         BigQuerySchema bqSchema = objectMapper.readValue(text, BigQuerySchema.class);
                         schema = bqSchema.getSchema();
-                        for (var storedPart : storedParts) {
-                            addRow(storedPart, transferType);
-                        }
+                        addRows(storedParts, transferType);
                         storedParts.clear();
                         monitor.info("Schema SET");
                     }
                 } else {
+                    var rows = text.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
                     if (schema == null) {
-                        storedParts.add(text);
+                        storedParts.addAll(rows);
                     } else {
-                        addRow(text, transferType);
+                        addRows(rows, transferType);
                     }
                 }
             } catch (IOException e) {
@@ -212,6 +258,21 @@ public class BigQueryDataSink extends ParallelSink {
             return this;
         }
 
+        public Builder jobPoller(BigQueryJobPoller jobPoller) {
+            sink.jobPoller = jobPoller;
+            return this;
+        }
+
+        public Builder dmlExecutorService(ExecutorService dmlExecutorService) {
+            sink.dmlExecutorService = dmlExecutorService;
+            return this;
+        }
+
+        public Builder clientProvider(BigQueryClientProvider clientProvider) {
+            sink.clientProvider = clientProvider;
+            return this;
+        }
+
         private Builder() {
             super(new BigQueryDataSink());
         }
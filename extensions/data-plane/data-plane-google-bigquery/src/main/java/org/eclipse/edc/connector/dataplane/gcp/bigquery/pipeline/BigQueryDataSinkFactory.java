@@ -15,6 +15,7 @@
 package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
 
 import org.eclipse.edc.connector.dataplane.bigquery.spi.BigQueryRequestParamsProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryClientProvider;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSink;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSinkFactory;
 import org.eclipse.edc.spi.monitor.Monitor;
@@ -33,14 +34,23 @@ public class BigQueryDataSinkFactory implements DataSinkFactory {
     private final ExecutorService executorService;
     private final Monitor monitor;
     private final BigQueryRequestParamsProvider requestParamsProvider;
+    private final BigQueryJobPoller jobPoller;
+    private final ExecutorService dmlExecutorService;
+    private final BigQueryClientProvider clientProvider;
 
     public BigQueryDataSinkFactory(
                                ExecutorService executorService,
                                Monitor monitor,
-                               BigQueryRequestParamsProvider requestParamsProvider) {
+                               BigQueryRequestParamsProvider requestParamsProvider,
+                               BigQueryJobPoller jobPoller,
+                               ExecutorService dmlExecutorService,
+                               BigQueryClientProvider clientProvider) {
         this.executorService = executorService;
         this.monitor = monitor;
         this.requestParamsProvider = requestParamsProvider;
+        this.jobPoller = jobPoller;
+        this.dmlExecutorService = dmlExecutorService;
+        this.clientProvider = clientProvider;
     }
 
     @Override
@@ -77,6 +87,9 @@ public class BigQueryDataSinkFactory implements DataSinkFactory {
                 .executorService(executorService)
                 .monitor(monitor)
                 .params(requestParamsProvider.provideSinkParams(request))
+                .jobPoller(jobPoller)
+                .dmlExecutorService(dmlExecutorService)
+                .clientProvider(clientProvider)
                 .build();
     }
 }
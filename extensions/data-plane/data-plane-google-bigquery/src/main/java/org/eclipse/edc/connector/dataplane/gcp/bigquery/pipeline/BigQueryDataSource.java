@@ -16,42 +16,69 @@ package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
 
 // import com.fasterxml.jackson.core.JsonGenerator;
 // import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 // import com.fasterxml.jackson.databind.SerializerProvider;
 // import com.fasterxml.jackson.databind.module.SimpleModule;
 // import com.fasterxml.jackson.databind.ser.std.StdSerializer;
-import com.google.auth.oauth2.ServiceAccountCredentials;
 // import com.google.cloud.bigquery.*;
 // import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.BigQuery;
-import com.google.cloud.bigquery.BigQueryOptions;
-import com.google.cloud.bigquery.FieldValue;
-import com.google.cloud.bigquery.FieldValueList;
 import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.JobId;
 import com.google.cloud.bigquery.JobInfo;
 import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableResult;
 import com.google.common.collect.ImmutableMap;
+import org.apache.avro.generic.GenericRecord;
 import org.eclipse.edc.connector.dataplane.bigquery.spi.BigQueryRequestParams;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryClientProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read.ParallelStreamReader;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.PendingWatermarks;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.WatermarkStore;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.WatermarkTracker;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult;
-// import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
 // import org.jetbrains.annotations.NotNull;
 
 import java.io.ByteArrayInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 // import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
-import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
-
+import java.util.stream.StreamSupport;
+
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.CHUNK_ROWS;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.CHUNK_SIZE;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.PAGE_SIZE;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.PARTITION_COLUMN;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.PARTITION_FROM;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.PARTITION_TO;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.READ_MODE;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.READ_MODE_STORAGE_API;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.READ_STREAMS;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.SELECTED_FIELDS;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.WATERMARK_COLUMN;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.WATERMARK_KEY;
 import static org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult.error;
 import static org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult.success;
 
@@ -60,11 +87,22 @@ public class BigQueryDataSource implements DataSource {
     private static final int FORBIDDEN = 401;
     private static final int NOT_AUTHORIZED = 403;
     private static final int NOT_FOUND = 404;
+    private static final int DEFAULT_READ_STREAMS = 4;
+    private static final int READ_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_CHUNK_ROWS = 1000;
+    private static final long DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final String WATERMARK_PARAMETER = "edc_watermark";
 
     private String name;
     private BigQueryRequestParams params;
     private String requestId;
     private Monitor monitor;
+    private ExecutorService readExecutorService;
+    private WatermarkStore watermarkStore;
+    private PendingWatermarks pendingWatermarks;
+    private BigQueryJobPoller jobPoller;
+    private BigQueryClientProvider clientProvider;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     public StreamResult<Stream<Part>> openPartStream() {
@@ -72,76 +110,47 @@ public class BigQueryDataSource implements DataSource {
         try {
             monitor.info("BigQueryDataSource openPartStream: service_account_file=" + params.getServiceAccountFile());
             monitor.info("BigQueryDataSource openPartStream: service_account_name=" + params.getServiceAccountName());
-            var bqBuilder = BigQueryOptions.newBuilder().setProjectId(params.getProject());
-            if (params.getServiceAccountName() != null && !params.getServiceAccountName().isEmpty()) {
-                GoogleCredentials sourceCredentials = GoogleCredentials.getApplicationDefault();
-                sourceCredentials.createScoped(Arrays.asList("https://www.googleapis.com/auth/iam"));
-                ImpersonatedCredentials targetCredentials = ImpersonatedCredentials.create(sourceCredentials, params.getServiceAccountName(), null,
-                    Arrays.asList("https://www.googleapis.com/auth/bigquery"), 300);
-                bqBuilder.setCredentials(targetCredentials);
-            } else if (params.getServiceAccountFile() != null && !params.getServiceAccountFile().isEmpty()) {                var accountKeyStream = new FileInputStream(params.getServiceAccountFile());
-                bqBuilder.setCredentials(ServiceAccountCredentials.fromStream(accountKeyStream));
-                accountKeyStream.close();
-            }
-            BigQuery bigquery = bqBuilder.build().getService();
+            var bigquery = clientProvider.getClient(params.getProject(), params.getServiceAccountName(), params.getServiceAccountFile());
             monitor.info("BigQueryDataSource openPartStream: bigquery=" + bigquery);
-            var query = buildQuery();
-
-            QueryJobConfiguration queryConfig
-                    = QueryJobConfiguration.newBuilder(query)
-                            // Use standard SQL syntax for queries.
-                            // See: https://cloud.google.com/bigquery/sql-reference/
-                            .setLabels(ImmutableMap.of("customer", "customer_name"))
-                            .setUseLegacySql(false)
-                            .build();
-
-            // Create a job ID so that we can safely retry.
-            JobId jobId = JobId.of(UUID.randomUUID().toString());
-            Job queryJob = bigquery.create(JobInfo.newBuilder(queryConfig).setJobId(jobId).build());
-
-            // Wait for the query to complete.
-            queryJob = queryJob.waitFor();
-
-            // Check for errors
-            if (queryJob == null) {
-                throw new RuntimeException("Job no longer exists");
-            } else if (queryJob.getStatus().getError() != null) {
-                // You can also look at queryJob.getStatus().getExecutionErrors() for all
-                // errors, not just the latest one.
-                throw new RuntimeException(queryJob.getStatus().getError().toString());
-            }
 
-            monitor.info("Query executed: rows = " + queryJob.getQueryResults().getTotalRows());
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            List<Part> parts = new ArrayList();
-
-            var schema = queryJob.getQueryResults().getSchema();
-            var bqSchema = new BigQuerySchema(schema);
-            parts.add(new BigQueryPart("schema", new ByteArrayInputStream(objectMapper.writeValueAsString(bqSchema).getBytes())));
+            var watermarkColumn = sourceProperty(WATERMARK_COLUMN);
+            if (watermarkColumn != null && !watermarkColumn.isBlank()) {
+                if (READ_MODE_STORAGE_API.equals(sourceProperty(READ_MODE))) {
+                    return error("Incremental extraction with " + WATERMARK_COLUMN + " does not support " + READ_MODE + " " + READ_MODE_STORAGE_API);
+                }
+                if (watermarkStore == null) {
+                    return error("Incremental extraction with " + WATERMARK_COLUMN + " requires a durable watermark directory to be configured");
+                }
+                var selectedFields = selectedFields();
+                if (!selectedFields.isEmpty() && !selectedFields.contains(watermarkColumn)) {
+                    return error(WATERMARK_COLUMN + " " + watermarkColumn + " must be one of the " + SELECTED_FIELDS);
+                }
+                return success(readIncrementally(bigquery, watermarkColumn));
+            }
 
-            Vector<String> fieldNames = new Vector<String>();
-            for (var schemaItem : schema.getFields()) {
-                fieldNames.add(schemaItem.getName());
+            var partitionFilter = partitionFilter();
+            if (READ_MODE_STORAGE_API.equals(sourceProperty(READ_MODE))) {
+                if (params.getQuery() != null && !params.getQuery().isEmpty()) {
+                    // The results of a query job land in a temporary table that can be read like any other table.
+                    return success(afterQuery(runQuery(bigquery, restrict(buildQuery(), partitionFilter)), queryJob -> {
+                        var tableId = ((QueryJobConfiguration) queryJob.getConfiguration()).getDestinationTable();
+                        return readWithStorageApi(bigquery, tableId, null);
+                    }));
+                }
+                var tableId = TableId.of(params.getProject(), params.getDataset(), params.getTable());
+                return success(readWithStorageApi(bigquery, tableId, partitionFilter != null ? partitionFilter.rowRestriction() : null));
             }
 
-            int rowIndex = 0;
-            for (FieldValueList row : queryJob.getQueryResults().iterateAll()) {
-                int index = 0;
-                HashMap<String, String> rowMap = new HashMap<String, String>();
-                rowMap.put("__row__", "" + rowIndex);
-                for (FieldValue value : row) {
-                    rowMap.put(fieldNames.elementAt(index++), value.getStringValue());
+            if (params.getQuery() == null || params.getQuery().isEmpty()) {
+                if (partitionFilter != null || !selectedFields().isEmpty()) {
+                    // Only a query prunes columns and partitions, reading the table data would fetch all of them.
+                    return success(readQuery(bigquery, restrict(ParameterizedQuery.ofTable(params.getProject(), params.getDataset(), params.getTable()), partitionFilter)));
                 }
-                parts.add(new BigQueryPart("row " + rowIndex, new ByteArrayInputStream(objectMapper.writeValueAsString(rowMap).getBytes())));
-                rowIndex++;
+                return success(readTable(bigquery, TableId.of(params.getProject(), params.getDataset(), params.getTable())));
             }
 
-            return success(parts.stream());
+            return success(readQuery(bigquery, restrict(buildQuery(), partitionFilter)));
 
-        } catch (InterruptedException interruptedException) {
-            monitor.warning("Job waitFor raised exception");
-            return error(interruptedException.getMessage());
         } catch (IOException ioException) {
             monitor.warning("IoException " + ioException);
             return error(ioException.getMessage());
@@ -151,30 +160,306 @@ public class BigQueryDataSource implements DataSource {
     private BigQueryDataSource() {
     }
 
-    private String getParameterName(String query, int index) {
-        int start = index;
-        while (index < query.length() && (query.charAt(index) == '_' || Character.isLetterOrDigit(query.charAt(index)))) {
-            ++index;
+    /**
+     * Starts the query job, the future completes once the poller found it done.
+     */
+    private CompletableFuture<Job> runQuery(BigQuery bigquery, ParameterizedQuery query) {
+        QueryJobConfiguration queryConfig
+                = QueryJobConfiguration.newBuilder(query.getQuery())
+                        .setNamedParameters(query.getParameters())
+                        // Use standard SQL syntax for queries.
+                        // See: https://cloud.google.com/bigquery/sql-reference/
+                        .setLabels(ImmutableMap.of("customer", "customer_name"))
+                        .setUseLegacySql(false)
+                        .build();
+
+        // Create a job ID so that we can safely retry.
+        JobId jobId = JobId.of(UUID.randomUUID().toString());
+        Job queryJob = bigquery.create(JobInfo.newBuilder(queryConfig).setJobId(jobId).build());
+
+        return jobPoller.whenDone(queryJob);
+    }
+
+    /**
+     * Returns the parts the reader produces from the finished query job. Opening the part stream does not wait for the
+     * job, the wait happens on the thread taking the first part, which is the thread the sink drains the stream on.
+     * The parts are taken from the reader's stream one by one, so only the chunks the sink asks for are ever built.
+     */
+    private Stream<Part> afterQuery(CompletableFuture<Job> queryJob, QueryJobReader reader) {
+        var parts = new DeferredParts(queryJob, reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(parts, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(parts::close);
+    }
+
+    private Stream<Part> readQuery(BigQuery bigquery, ParameterizedQuery query) {
+        return afterQuery(runQuery(bigquery, query), this::readQueryResults);
+    }
+
+    private Stream<Part> readQueryResults(Job queryJob) throws InterruptedException, IOException {
+        var result = queryResults(queryJob);
+        monitor.info("Query executed: rows = " + result.getTotalRows());
+
+        var schema = result.getSchema();
+        var encoder = new FieldValueJsonEncoder(objectMapper.getFactory(), schema.getFields());
+
+        // iterateAll() fetches the next page only when the previous one is consumed, the rows are never held
+        // all at once and the sink starts writing with the first page.
+        var rows = StreamSupport.stream(result.iterateAll().spliterator(), false);
+
+        return Stream.concat(Stream.of(schemaPart(schema)), chunked(rows, encoder));
+    }
+
+    private TableResult queryResults(Job queryJob) throws InterruptedException {
+        var pageSize = pageSize();
+        return pageSize != null
+                ? queryJob.getQueryResults(BigQuery.QueryResultsOption.pageSize(pageSize))
+                : queryJob.getQueryResults();
+    }
+
+    /**
+     * Reads only the rows whose watermark column is strictly above the watermark stored for the source, the query or the
+     * whole table on the first run. The highest value of the column among the rows becomes pending once the sink has taken
+     * the last part, and is saved only after the data flow completed successfully.
+     */
+    private Stream<Part> readIncrementally(BigQuery bigquery, String watermarkColumn) {
+        var key = watermarkKey();
+        var watermark = watermarkStore.get(key);
+        var query = restrict(params.getQuery() != null && !params.getQuery().isEmpty()
+                ? buildQuery()
+                : ParameterizedQuery.ofTable(params.getProject(), params.getDataset(), params.getTable()), partitionFilter());
+        if (watermark != null) {
+            query = query.greaterThan(watermarkColumn, WATERMARK_PARAMETER, watermark.toParameter());
+            monitor.info("BigQueryDataSource extracting " + key + " above watermark " + watermark);
+        } else {
+            monitor.warning("BigQueryDataSource has no watermark stored for " + key + ", extracting all rows");
         }
-        return query.substring(start, index);
+        return afterQuery(runQuery(bigquery, query), queryJob -> readIncrementally(queryJob, key, watermarkColumn));
     }
 
-    private String buildQuery() {
-        var query = params.getQuery();
-        int index = -1;
-        while ((index = query.indexOf("@@")) != -1) {
-            String parameterName = getParameterName(query, index + 2);
-            monitor.info("Source parameter name: " + parameterName);
+    private Stream<Part> readIncrementally(Job queryJob, String key, String watermarkColumn) throws InterruptedException, IOException {
+        var result = queryResults(queryJob);
+        var schema = result.getSchema();
+        var tracker = new WatermarkTracker(schema.getFields(), watermarkColumn);
+        var encoder = new FieldValueJsonEncoder(objectMapper.getFactory(), schema.getFields());
+        var rows = StreamSupport.stream(result.iterateAll().spliterator(), false).peek(tracker::observe);
+
+        var parts = Stream.concat(Stream.of(schemaPart(schema)), chunked(rows, encoder));
+        return onExhausted(parts, () -> {
+            var next = tracker.getWatermark();
+            if (next != null) {
+                pendingWatermarks.add(params.getRequest().getProcessId(), key, next);
+                monitor.info("BigQueryDataSource watermark of " + key + " reached " + next + ", saved once the transfer completed");
+            }
+        });
+    }
+
+    private String watermarkKey() {
+        var key = sourceProperty(WATERMARK_KEY);
+        if (key != null && !key.isBlank()) {
+            return key;
+        }
+        if (params.getQuery() != null && !params.getQuery().isEmpty()) {
+            throw new EdcException(WATERMARK_KEY + " is required for the incremental extraction of a query");
+        }
+        return String.format("%s.%s.%s", params.getProject(), params.getDataset(), params.getTable());
+    }
+
+    /**
+     * Runs the action once the stream was consumed completely, not when it is closed early.
+     */
+    private static <T> Stream<T> onExhausted(Stream<T> stream, Runnable action) {
+        var iterator = stream.iterator();
+        var notifying = new Iterator<T>() {
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                var hasNext = iterator.hasNext();
+                if (!hasNext && !exhausted) {
+                    exhausted = true;
+                    action.run();
+                }
+                return hasNext;
+            }
 
-            var value = params.getRequest().getDestinationDataAddress().getStringProperty(parameterName);
-            if (value != null) {
-                query = query.substring(0, index) + value + query.substring(index + 2 + parameterName.length());
-            } else {
-                // throw error.
+            @Override
+            public T next() {
+                return iterator.next();
             }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(notifying, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Reads all rows and columns of the table page by page without a query job, so plain table exports neither wait for
+     * a job nor pay for a table scan.
+     */
+    private Stream<Part> readTable(BigQuery bigquery, TableId tableId) throws IOException {
+        var schema = tableSchema(bigquery, tableId);
+        var pageSize = pageSize();
+        var result = pageSize != null
+                ? bigquery.listTableData(tableId, schema, BigQuery.TableDataListOption.pageSize(pageSize))
+                : bigquery.listTableData(tableId, schema);
+        monitor.info("BigQueryDataSource reading table " + tableId + ": rows = " + result.getTotalRows());
+
+        var encoder = new FieldValueJsonEncoder(objectMapper.getFactory(), schema.getFields());
+        var rows = StreamSupport.stream(result.iterateAll().spliterator(), false);
+        return Stream.concat(Stream.of(schemaPart(schema)), chunked(rows, encoder));
+    }
+
+    /**
+     * Reads the table through the Storage Read API with up to {@code read_streams} streams that are read concurrently.
+     * The rows of all streams are merged into the part stream in the order they arrive. Selected fields and the row
+     * restriction are applied by the service, so only the needed columns and partitions are read.
+     */
+    private Stream<Part> readWithStorageApi(BigQuery bigquery, TableId tableId, @Nullable String rowRestriction) throws IOException {
+        var selectedFields = selectedFields();
+        var schema = project(tableSchema(bigquery, tableId), selectedFields);
+        var schemaPart = schemaPart(schema);
+        var readStreams = Optional.ofNullable(sourceProperty(READ_STREAMS)).map(Integer::parseInt).orElse(DEFAULT_READ_STREAMS);
+
+        var client = clientProvider.getReadClient(params.getProject(), params.getServiceAccountName(), params.getServiceAccountFile());
+        var session = client.createReadSession(params.getProject(), tableId, selectedFields, rowRestriction, readStreams);
+        monitor.info("BigQueryDataSource read session on " + tableId + " with " + session.getStreamNames().size() + " streams");
+
+        var encoder = new AvroRecordJsonEncoder(objectMapper.getFactory(), schema.getFields(), session.getAvroSchema());
+        var reader = new ParallelStreamReader<GenericRecord>(client, readExecutorService, READ_QUEUE_CAPACITY);
+        var rows = reader.read(session, Function.identity());
+        return Stream.concat(Stream.of(schemaPart), chunked(rows, encoder));
+    }
+
+    private String sourceProperty(String key) {
+        return params.getRequest().getSourceDataAddress().getStringProperty(key);
+    }
+
+    private Long pageSize() {
+        return Optional.ofNullable(sourceProperty(PAGE_SIZE)).map(Long::parseLong).orElse(null);
+    }
+
+    private List<String> selectedFields() {
+        var selectedFields = sourceProperty(SELECTED_FIELDS);
+        if (selectedFields == null || selectedFields.isBlank()) {
+            return List.of();
         }
+        return Arrays.stream(selectedFields.split(","))
+                .map(String::trim)
+                .collect(Collectors.toList());
+    }
 
-        return query;
+    private @Nullable PartitionFilter partitionFilter() {
+        return PartitionFilter.of(sourceProperty(PARTITION_COLUMN), sourceProperty(PARTITION_FROM), sourceProperty(PARTITION_TO));
+    }
+
+    /**
+     * Projects the query to the selected fields and restricts it to the partitions of the filter, if any.
+     */
+    private ParameterizedQuery restrict(ParameterizedQuery query, @Nullable PartitionFilter partitionFilter) {
+        var selectedFields = selectedFields();
+        if (partitionFilter != null) {
+            return query.select(selectedFields, partitionFilter.condition(), partitionFilter.parameters());
+        }
+        return selectedFields.isEmpty() ? query : query.select(selectedFields, null, Map.of());
+    }
+
+    private Schema tableSchema(BigQuery bigquery, TableId tableId) {
+        var table = bigquery.getTable(tableId);
+        if (table == null) {
+            throw new EdcException("Table " + tableId + " not found");
+        }
+        return table.getDefinition().getSchema();
+    }
+
+    private Schema project(Schema schema, List<String> selectedFields) {
+        if (selectedFields.isEmpty()) {
+            return schema;
+        }
+        return Schema.of(selectedFields.stream()
+                .map(name -> schema.getFields().get(name))
+                .collect(Collectors.toList()));
+    }
+
+    private Part schemaPart(Schema schema) throws JsonProcessingException {
+        return new BigQueryPart("schema", new ByteArrayInputStream(objectMapper.writeValueAsBytes(new BigQuerySchema(schema))));
+    }
+
+    /**
+     * Packs the rows into NDJSON parts of up to {@code chunk_rows} rows and {@code chunk_size} bytes, so sinks write
+     * batches instead of single rows.
+     */
+    private <T> Stream<Part> chunked(Stream<T> rows, RowEncoder<T> encoder) {
+        var chunkRows = Optional.ofNullable(sourceProperty(CHUNK_ROWS)).map(Integer::parseInt).orElse(DEFAULT_CHUNK_ROWS);
+        var chunkSize = Optional.ofNullable(sourceProperty(CHUNK_SIZE)).map(Long::parseLong).orElse(DEFAULT_CHUNK_SIZE);
+        var chunks = new NdjsonChunkIterator<>(rows.iterator(), encoder, chunkRows, chunkSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(chunk -> (Part) new BigQueryPart(chunk.name(), new ByteArrayInputStream(chunk.content())))
+                .onClose(rows::close);
+    }
+
+    private ParameterizedQuery buildQuery() {
+        var destination = params.getRequest().getDestinationDataAddress();
+        return ParameterizedQuery.of(params.getQuery(), destination::getStringProperty);
+    }
+
+    /**
+     * Iterates the parts of a query job, joining the job and opening the reader only when the first part is asked for.
+     * Unlike {@link Stream#flatMap}, whose iterator buffers the whole inner stream, every part is pulled on demand.
+     */
+    private static class DeferredParts implements Iterator<Part> {
+        private final CompletableFuture<Job> queryJob;
+        private final QueryJobReader reader;
+        private Stream<Part> parts;
+        private Iterator<Part> iterator;
+
+        DeferredParts(CompletableFuture<Job> queryJob, QueryJobReader reader) {
+            this.queryJob = queryJob;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return parts().hasNext();
+        }
+
+        @Override
+        public Part next() {
+            return parts().next();
+        }
+
+        void close() {
+            if (parts != null) {
+                parts.close();
+            }
+        }
+
+        private Iterator<Part> parts() {
+            if (iterator == null) {
+                parts = open();
+                iterator = parts.iterator();
+            }
+            return iterator;
+        }
+
+        private Stream<Part> open() {
+            try {
+                return reader.read(queryJob.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof EdcException edcException ? edcException : new EdcException(e.getCause());
+            } catch (IOException e) {
+                throw new EdcException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EdcException("Reading the results of BigQuery job interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Reads the parts from a finished query job.
+     */
+    @FunctionalInterface
+    private interface QueryJobReader {
+        Stream<Part> read(Job queryJob) throws InterruptedException, IOException;
     }
 
     public static class Builder {
@@ -209,9 +494,36 @@ public class BigQueryDataSource implements DataSource {
             return this;
         }
 
+        public Builder readExecutorService(ExecutorService readExecutorService) {
+            dataSource.readExecutorService = readExecutorService;
+            return this;
+        }
+
+        public Builder watermarkStore(WatermarkStore watermarkStore) {
+            dataSource.watermarkStore = watermarkStore;
+            return this;
+        }
+
+        public Builder pendingWatermarks(PendingWatermarks pendingWatermarks) {
+            dataSource.pendingWatermarks = pendingWatermarks;
+            return this;
+        }
+
+        public Builder jobPoller(BigQueryJobPoller jobPoller) {
+            dataSource.jobPoller = jobPoller;
+            return this;
+        }
+
+        public Builder clientProvider(BigQueryClientProvider clientProvider) {
+            dataSource.clientProvider = clientProvider;
+            return this;
+        }
+
         public BigQueryDataSource build() {
             Objects.requireNonNull(dataSource.requestId, "requestId");
             Objects.requireNonNull(dataSource.monitor, "monitor");
+            Objects.requireNonNull(dataSource.jobPoller, "jobPoller");
+            Objects.requireNonNull(dataSource.clientProvider, "clientProvider");
             return dataSource;
         }
     }
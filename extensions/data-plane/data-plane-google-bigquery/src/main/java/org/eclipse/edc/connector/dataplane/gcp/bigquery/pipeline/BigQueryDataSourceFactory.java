@@ -15,6 +15,9 @@
 package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
 
 import org.eclipse.edc.connector.dataplane.bigquery.spi.BigQueryRequestParamsProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryClientProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.PendingWatermarks;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.WatermarkStore;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSourceFactory;
 import org.eclipse.edc.spi.monitor.Monitor;
@@ -24,6 +27,8 @@ import org.eclipse.edc.spi.types.domain.HttpDataAddress;
 import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.ExecutorService;
+
 import static org.eclipse.edc.spi.types.domain.BigQueryDataAddress.BIGQUERY_DATA;
 
 /**
@@ -33,11 +38,26 @@ public class BigQueryDataSourceFactory implements DataSourceFactory {
 
     private final BigQueryRequestParamsProvider requestParamsProvider;
     private final Monitor monitor;
+    private final ExecutorService readExecutorService;
+    private final WatermarkStore watermarkStore;
+    private final PendingWatermarks pendingWatermarks;
+    private final BigQueryJobPoller jobPoller;
+    private final BigQueryClientProvider clientProvider;
 
     public BigQueryDataSourceFactory(Monitor monitor,
-                                     BigQueryRequestParamsProvider requestParamsProvider) {
+                                     BigQueryRequestParamsProvider requestParamsProvider,
+                                     ExecutorService readExecutorService,
+                                     WatermarkStore watermarkStore,
+                                     PendingWatermarks pendingWatermarks,
+                                     BigQueryJobPoller jobPoller,
+                                     BigQueryClientProvider clientProvider) {
         this.monitor = monitor;
         this.requestParamsProvider = requestParamsProvider;
+        this.readExecutorService = readExecutorService;
+        this.watermarkStore = watermarkStore;
+        this.pendingWatermarks = pendingWatermarks;
+        this.jobPoller = jobPoller;
+        this.clientProvider = clientProvider;
     }
 
     @Override
@@ -79,6 +99,11 @@ public class BigQueryDataSourceFactory implements DataSourceFactory {
                 .requestId(request.getId())
                 .name(dataAddress.getName())
                 .params(requestParamsProvider.provideSourceParams(request))
+                .readExecutorService(readExecutorService)
+                .watermarkStore(watermarkStore)
+                .pendingWatermarks(pendingWatermarks)
+                .jobPoller(jobPoller)
+                .clientProvider(clientProvider)
                 .build();
     }
 }
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatus;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks running BigQuery jobs without holding a thread while they run. The status of every job is polled from a
+ * shared scheduler, starting with the initial delay and doubling it after every poll up to the maximum delay, so short
+ * jobs complete quickly and long ones cost few status requests.
+ */
+public class BigQueryJobPoller {
+    private final ScheduledExecutorService scheduler;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final Monitor monitor;
+
+    public BigQueryJobPoller(ScheduledExecutorService scheduler, Duration initialDelay, Duration maxDelay, Monitor monitor) {
+        this.scheduler = scheduler;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns a future that completes with the job once it is done, or exceptionally with an {@link EdcException} if
+     * it failed or no longer exists. Cancelling the future stops the polling, not the job.
+     */
+    public CompletableFuture<Job> whenDone(Job job) {
+        var result = new CompletableFuture<Job>();
+        schedule(job, initialDelay, result);
+        return result;
+    }
+
+    private void schedule(Job job, Duration delay, CompletableFuture<Job> result) {
+        scheduler.schedule(() -> poll(job, delay, result), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls the status of the job, errors while polling are logged and the next poll is waited for.
+     */
+    private void poll(Job job, Duration delay, CompletableFuture<Job> result) {
+        if (result.isDone()) {
+            return;
+        }
+        var nextDelay = delay.multipliedBy(2).compareTo(maxDelay) > 0 ? maxDelay : delay.multipliedBy(2);
+        Job current;
+        try {
+            current = job.reload();
+        } catch (Exception e) {
+            monitor.warning("Error polling BigQuery job " + job.getJobId(), e);
+            schedule(job, nextDelay, result);
+            return;
+        }
+
+        if (current == null) {
+            result.completeExceptionally(new EdcException("BigQuery job " + job.getJobId() + " no longer exists"));
+        } else if (current.getStatus().getState() != JobStatus.State.DONE) {
+            schedule(current, nextDelay, result);
+        } else if (current.getStatus().getError() != null) {
+            // getExecutionErrors() holds all errors, the error of the status is the one that made the job fail
+            result.completeExceptionally(new EdcException("BigQuery job " + job.getJobId() + " failed: " + current.getStatus().getError()));
+        } else {
+            result.complete(current);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes rows of query results or table data as JSON objects straight from their field values, following a plan of the
+ * fields that is computed from the schema once, optionally projected to selected top level fields. Integers and floats are written as numbers, booleans as booleans, records as nested
+ * objects and repeated fields as arrays. All other values, e.g. numerics and timestamps, are written as the string
+ * BigQuery returns so no precision is lost. The generator and its buffer are reused for every row, not thread safe.
+ */
+class FieldValueJsonEncoder implements RowEncoder<FieldValueList> {
+
+    private static final SerializedString ROW_INDEX = new SerializedString("__row__");
+
+    private final FieldPlan[] plan;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final JsonGenerator generator;
+
+    FieldValueJsonEncoder(JsonFactory jsonFactory, FieldList fields) throws IOException {
+        this(jsonFactory, fields, List.of());
+    }
+
+    /**
+     * Creates an encoder that writes only the selected fields in the given order, all fields if none are selected.
+     *
+     * @throws IllegalArgumentException if a selected field is not in the schema.
+     */
+    FieldValueJsonEncoder(JsonFactory jsonFactory, FieldList fields, List<String> selectedFields) throws IOException {
+        this.plan = selectedFields.isEmpty() ? plan(fields) : plan(fields, selectedFields);
+        this.generator = jsonFactory.createGenerator(buffer);
+        // every row is a root value, the buffer holds only one of them at a time
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void encode(FieldValueList row, long rowIndex) throws IOException {
+        buffer.reset();
+        generator.writeStartObject();
+        generator.writeFieldName(ROW_INDEX);
+        generator.writeString(Long.toString(rowIndex));
+        writeFields(plan, row);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    public int size() {
+        return buffer.size();
+    }
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+        buffer.writeTo(output);
+    }
+
+    private void writeFields(FieldPlan[] fields, FieldValueList values) throws IOException {
+        for (var index = 0; index < fields.length; index++) {
+            generator.writeFieldName(fields[index].name);
+            writeValue(fields[index], values.get(fields[index].position));
+        }
+    }
+
+    private void writeValue(FieldPlan field, FieldValue value) throws IOException {
+        if (value == null || value.isNull()) {
+            generator.writeNull();
+        } else if (field.repeated) {
+            generator.writeStartArray();
+            for (var element : value.getRepeatedValue()) {
+                writeSingleValue(field, element);
+            }
+            generator.writeEndArray();
+        } else {
+            writeSingleValue(field, value);
+        }
+    }
+
+    private void writeSingleValue(FieldPlan field, FieldValue value) throws IOException {
+        if (value.isNull()) {
+            generator.writeNull();
+            return;
+        }
+        switch (field.kind) {
+            case INTEGER -> generator.writeNumber(value.getLongValue());
+            case FLOAT -> generator.writeNumber(value.getDoubleValue());
+            case BOOLEAN -> generator.writeBoolean(value.getBooleanValue());
+            case RECORD -> {
+                generator.writeStartObject();
+                writeFields(field.subFields, value.getRecordValue());
+                generator.writeEndObject();
+            }
+            default -> generator.writeString(value.getStringValue());
+        }
+    }
+
+    private static FieldPlan[] plan(FieldList fields) {
+        var plan = new FieldPlan[fields.size()];
+        for (var index = 0; index < plan.length; index++) {
+            plan[index] = new FieldPlan(fields.get(index), index);
+        }
+        return plan;
+    }
+
+    private static FieldPlan[] plan(FieldList fields, List<String> selectedFields) {
+        var plan = new FieldPlan[selectedFields.size()];
+        for (var index = 0; index < plan.length; index++) {
+            var name = selectedFields.get(index);
+            plan[index] = new FieldPlan(fields.get(name), fields.getIndex(name));
+        }
+        return plan;
+    }
+
+    private enum Kind {
+        INTEGER,
+        FLOAT,
+        BOOLEAN,
+        RECORD,
+        STRING
+    }
+
+    private static class FieldPlan {
+        private final SerializedString name;
+        private final int position;
+        private final Kind kind;
+        private final boolean repeated;
+        private final FieldPlan[] subFields;
+
+        FieldPlan(Field field, int position) {
+            name = new SerializedString(field.getName());
+            this.position = position;
+            kind = kind(field.getType().getStandardType());
+            repeated = field.getMode() == Field.Mode.REPEATED;
+            subFields = kind == Kind.RECORD ? plan(field.getSubFields()) : null;
+        }
+
+        private static Kind kind(StandardSQLTypeName type) {
+            return switch (type) {
+                case INT64 -> Kind.INTEGER;
+                case FLOAT64 -> Kind.FLOAT;
+                case BOOL -> Kind.BOOLEAN;
+                case STRUCT -> Kind.RECORD;
+                default -> Kind.STRING;
+            };
+        }
+    }
+}
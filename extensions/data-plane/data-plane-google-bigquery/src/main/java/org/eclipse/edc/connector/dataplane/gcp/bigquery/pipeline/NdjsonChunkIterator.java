@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import org.eclipse.edc.spi.EdcException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Packs rows into NDJSON chunks of at most a number of rows and bytes. A chunk holds at least one row, so a single row
+ * larger than the byte limit becomes a chunk of its own. Rows are encoded into the reused buffer of the encoder and
+ * copied into the chunk from there.
+ */
+class NdjsonChunkIterator<T> implements Iterator<NdjsonChunkIterator.Chunk> {
+
+    private final Iterator<T> rows;
+    private final RowEncoder<T> encoder;
+    private final int maxRows;
+    private final long maxBytes;
+    private boolean pending;
+    private long nextRow;
+
+    NdjsonChunkIterator(Iterator<T> rows, RowEncoder<T> encoder, int maxRows, long maxBytes) {
+        this.rows = rows;
+        this.encoder = encoder;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending || rows.hasNext();
+    }
+
+    @Override
+    public Chunk next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var content = new ByteArrayOutputStream();
+        var count = 0;
+        try {
+            while (count < maxRows) {
+                if (!pending) {
+                    if (!rows.hasNext()) {
+                        break;
+                    }
+                    encoder.encode(rows.next(), nextRow + count);
+                    pending = true;
+                }
+                if (count > 0 && content.size() + encoder.size() + 1 > maxBytes) {
+                    break;
+                }
+                encoder.writeTo(content);
+                content.write('\n');
+                pending = false;
+                count++;
+            }
+        } catch (IOException e) {
+            throw new EdcException("Error encoding row " + (nextRow + count), e);
+        }
+        var chunk = new Chunk(nextRow, count, content.toByteArray());
+        nextRow += count;
+        return chunk;
+    }
+
+    static class Chunk {
+        private final long firstRow;
+        private final int rowCount;
+        private final byte[] content;
+
+        Chunk(long firstRow, int rowCount, byte[] content) {
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+            this.content = content;
+        }
+
+        /**
+         * Name of the part carrying the chunk, e.g. {@code rows 0-999}.
+         */
+        String name() {
+            return "rows " + firstRow + "-" + (firstRow + rowCount - 1);
+        }
+
+        byte[] content() {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.QueryParameterValue;
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A query template whose {@code @@name} placeholders are turned into named query parameters instead of being replaced
+ * by their values, so the query text stays the same across transfers and BigQuery can serve cached results. A quoted
+ * placeholder, e.g. {@code '@@name'}, becomes a string parameter; an unquoted one gets the type of its value: integer,
+ * float, boolean or string.
+ * <p>
+ * Query parameters only stand for values. A placeholder inside a longer string literal, e.g. {@code 'prefix_@@name'},
+ * or in place of a table, dataset or column name is rejected; such queries have to concatenate the quoted placeholder,
+ * e.g. {@code CONCAT('prefix_', '@@name')}, or name the table in the query itself.
+ */
+class ParameterizedQuery {
+
+    private static final String PLACEHOLDER = "@@";
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern TRAILING_SEMICOLON = Pattern.compile(";\\s*$");
+    private static final Pattern TABLE_KEYWORD = Pattern.compile("(?i)\\b(FROM|JOIN|INTO|UPDATE|TABLE)\\s*$");
+
+    private final String query;
+    private final String from;
+    private final Map<String, QueryParameterValue> parameters;
+
+    private ParameterizedQuery(String query, String from, Map<String, QueryParameterValue> parameters) {
+        this.query = query;
+        this.from = from;
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    private ParameterizedQuery(String query, Map<String, QueryParameterValue> parameters) {
+        this(query, "(" + TRAILING_SEMICOLON.matcher(query).replaceFirst("") + ")", parameters);
+    }
+
+    /**
+     * Returns a query of all rows of the table. Restrictions select from the table itself, so they can use its pseudo
+     * columns, e.g. {@code _PARTITIONTIME}.
+     */
+    static ParameterizedQuery ofTable(String project, String dataset, String table) {
+        var from = String.format("`%s.%s.%s`", project, dataset, table);
+        return new ParameterizedQuery("SELECT * FROM " + from, from, new LinkedHashMap<>());
+    }
+
+    /**
+     * Parses the template, the values of the placeholders are looked up by their name.
+     *
+     * @throws EdcException if a placeholder has no value.
+     */
+    static ParameterizedQuery of(String template, Function<String, String> values) {
+        var query = new StringBuilder(template.length());
+        var parameters = new LinkedHashMap<String, QueryParameterValue>();
+        // the quote of the string literal or quoted identifier the scan is in, 0 outside of them
+        var literal = (char) 0;
+        var index = 0;
+        while (index < template.length()) {
+            var c = template.charAt(index);
+            if (literal == 0 && (c == '\'' || c == '"') && template.startsWith(PLACEHOLDER, index + 1)) {
+                var nameEnd = nameEnd(template, index + 1);
+                if (nameEnd < template.length() && template.charAt(nameEnd) == c) {
+                    addParameter(query, parameters, template, index + 1, nameEnd, true, values);
+                    index = nameEnd + 1;
+                    continue;
+                }
+            }
+            if (template.startsWith(PLACEHOLDER, index)) {
+                var nameEnd = nameEnd(template, index);
+                if (literal == '`' || isIdentifier(template, index, nameEnd)) {
+                    throw new EdcException("Query placeholder " + template.substring(index, nameEnd) + " at position " + index
+                            + " stands for a table, dataset or column name, which query parameters cannot replace");
+                }
+                if (literal != 0) {
+                    throw new EdcException("Query placeholder " + template.substring(index, nameEnd) + " at position " + index
+                            + " is part of a string literal, quote it on its own and concatenate it instead");
+                }
+                addParameter(query, parameters, template, index, nameEnd, false, values);
+                index = nameEnd;
+                continue;
+            }
+            if (literal != 0 && c == '\\' && index + 1 < template.length()) {
+                query.append(c);
+                c = template.charAt(++index);
+            } else if (literal != 0 && c == literal) {
+                literal = 0;
+            } else if (literal == 0 && (c == '\'' || c == '"' || c == '`')) {
+                literal = c;
+            }
+            query.append(c);
+            index++;
+        }
+        return new ParameterizedQuery(query.toString(), parameters);
+    }
+
+    /**
+     * Returns the query restricted to the rows whose column is strictly greater than the value, passed as named
+     * parameter. Rows equal to the value are excluded, they were delivered with the value.
+     *
+     * @throws EdcException if the column name is not a plain identifier or the parameter name is taken.
+     */
+    ParameterizedQuery greaterThan(String column, String parameterName, QueryParameterValue value) {
+        validateColumn(column);
+        return select(List.of(), String.format("`%s` > @%s", column, parameterName), Map.of(parameterName, value));
+    }
+
+    /**
+     * Returns the query projected to the columns, all if none are given, and restricted by the condition, if any.
+     * Selecting only the needed columns and filtering on the partition column before BigQuery runs the query lets it
+     * skip the storage of other columns and partitions.
+     *
+     * @throws EdcException if a column name is not a plain identifier or a parameter name of the condition is taken.
+     */
+    ParameterizedQuery select(List<String> columns, @Nullable String condition, Map<String, QueryParameterValue> conditionParameters) {
+        columns.forEach(ParameterizedQuery::validateColumn);
+        var restricted = new LinkedHashMap<>(parameters);
+        conditionParameters.forEach((name, value) -> {
+            if (restricted.putIfAbsent(name, value) != null) {
+                throw new EdcException("Query parameter " + name + " is reserved");
+            }
+        });
+        var selection = columns.isEmpty() ? "*" : columns.stream().map(column -> "`" + column + "`").collect(Collectors.joining(", "));
+        var restriction = condition != null ? " WHERE " + condition : "";
+        return new ParameterizedQuery(String.format("SELECT %s FROM %s%s", selection, from, restriction), restricted);
+    }
+
+    String getQuery() {
+        return query;
+    }
+
+    Map<String, QueryParameterValue> getParameters() {
+        return parameters;
+    }
+
+    private static void validateColumn(String column) {
+        if (!IDENTIFIER.matcher(column).matches()) {
+            throw new EdcException("Invalid column name " + column);
+        }
+    }
+
+    /**
+     * Appends the named parameter of the placeholder to the query and adds its value to the parameters.
+     *
+     * @throws EdcException if the placeholder has no name or value, or is used with another type before.
+     */
+    private static void addParameter(StringBuilder query, Map<String, QueryParameterValue> parameters, String template, int start,
+                                     int nameEnd, boolean quoted, Function<String, String> values) {
+        var name = template.substring(start + PLACEHOLDER.length(), nameEnd);
+        if (name.isEmpty()) {
+            throw new EdcException("Query placeholder without name at position " + start);
+        }
+        var value = values.apply(name);
+        if (value == null) {
+            throw new EdcException("No value for query parameter " + name);
+        }
+        query.append('@').append(name);
+        parameters.merge(name, quoted ? QueryParameterValue.string(value) : typedValue(value), (first, second) -> {
+            if (!first.equals(second)) {
+                throw new EdcException("Query parameter " + name + " is used both quoted and unquoted");
+            }
+            return first;
+        });
+    }
+
+    private static int nameEnd(String template, int start) {
+        var nameEnd = start + PLACEHOLDER.length();
+        while (nameEnd < template.length() && (template.charAt(nameEnd) == '_' || Character.isLetterOrDigit(template.charAt(nameEnd)))) {
+            nameEnd++;
+        }
+        return nameEnd;
+    }
+
+    /**
+     * Tells whether the placeholder is part of a path, e.g. {@code project.@@dataset.table}, or follows a keyword that
+     * names a table.
+     */
+    private static boolean isIdentifier(String template, int start, int nameEnd) {
+        var before = template.substring(0, start);
+        return before.stripTrailing().endsWith(".")
+                || (nameEnd < template.length() && template.charAt(nameEnd) == '.')
+                || TABLE_KEYWORD.matcher(before).find();
+    }
+
+    private static QueryParameterValue typedValue(String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return QueryParameterValue.bool(Boolean.parseBoolean(value));
+        }
+        try {
+            return QueryParameterValue.int64(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            // not an integer
+        }
+        try {
+            return QueryParameterValue.float64(Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            return QueryParameterValue.string(value);
+        }
+    }
+}
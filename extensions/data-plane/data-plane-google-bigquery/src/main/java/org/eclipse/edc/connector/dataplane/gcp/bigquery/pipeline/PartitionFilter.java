@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.QueryParameterValue;
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Restricts a read to the partitions whose partition column lies between a lower bound (inclusive) and an upper bound
+ * (exclusive). A bound is a date, e.g. {@code 2023-10-01}, an instant, e.g. {@code 2023-10-01T00:00:00Z}, or an
+ * integer for integer range partitioning, and has to match the type of the column. The bounds are parsed, so they can
+ * be passed as query parameters as well as written into the row restriction of a Storage API read session.
+ */
+class PartitionFilter {
+
+    static final String FROM_PARAMETER = "edc_partition_from";
+    static final String TO_PARAMETER = "edc_partition_to";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String column;
+    private final Bound from;
+    private final Bound to;
+
+    private PartitionFilter(String column, Bound from, Bound to) {
+        this.column = column;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates the filter of the column, {@code null} if no column is given.
+     *
+     * @throws EdcException if the column is not a plain identifier, no bound is given or a bound cannot be parsed.
+     */
+    static @Nullable PartitionFilter of(@Nullable String column, @Nullable String from, @Nullable String to) {
+        if (column == null || column.isBlank()) {
+            return null;
+        }
+        if (!IDENTIFIER.matcher(column).matches()) {
+            throw new EdcException("Invalid partition column " + column);
+        }
+        var fromBound = Bound.parse(from);
+        var toBound = Bound.parse(to);
+        if (fromBound == null && toBound == null) {
+            throw new EdcException("Partition filter on " + column + " has no bounds");
+        }
+        return new PartitionFilter(column, fromBound, toBound);
+    }
+
+    /**
+     * Returns the condition with the bounds as named parameters, see {@link #parameters()}.
+     */
+    String condition() {
+        var conditions = new ArrayList<String>();
+        if (from != null) {
+            conditions.add(String.format("`%s` >= @%s", column, FROM_PARAMETER));
+        }
+        if (to != null) {
+            conditions.add(String.format("`%s` < @%s", column, TO_PARAMETER));
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    Map<String, QueryParameterValue> parameters() {
+        var parameters = new LinkedHashMap<String, QueryParameterValue>();
+        if (from != null) {
+            parameters.put(FROM_PARAMETER, from.parameter());
+        }
+        if (to != null) {
+            parameters.put(TO_PARAMETER, to.parameter());
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns the condition with the bounds as literals, for the row restriction of a read session.
+     */
+    String rowRestriction() {
+        var conditions = new ArrayList<String>();
+        if (from != null) {
+            conditions.add(String.format("%s >= %s", column, from.literal()));
+        }
+        if (to != null) {
+            conditions.add(String.format("%s < %s", column, to.literal()));
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private static class Bound {
+        private final QueryParameterValue parameter;
+        private final String literal;
+
+        Bound(QueryParameterValue parameter, String literal) {
+            this.parameter = parameter;
+            this.literal = literal;
+        }
+
+        QueryParameterValue parameter() {
+            return parameter;
+        }
+
+        String literal() {
+            return literal;
+        }
+
+        private static @Nullable Bound parse(@Nullable String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            var trimmed = value.trim();
+            try {
+                return new Bound(QueryParameterValue.int64(Long.parseLong(trimmed)), trimmed);
+            } catch (NumberFormatException e) {
+                // not an integer
+            }
+            try {
+                var date = LocalDate.parse(trimmed);
+                return new Bound(QueryParameterValue.date(date.toString()), "DATE '" + date + "'");
+            } catch (DateTimeParseException e) {
+                // not a date
+            }
+            try {
+                var instant = Instant.parse(trimmed);
+                return new Bound(QueryParameterValue.timestamp(ChronoUnit.MICROS.between(Instant.EPOCH, instant)), "TIMESTAMP '" + instant + "'");
+            } catch (DateTimeParseException e) {
+                throw new EdcException("Partition bound " + value + " is neither an integer, a date nor an instant");
+            }
+        }
+    }
+}
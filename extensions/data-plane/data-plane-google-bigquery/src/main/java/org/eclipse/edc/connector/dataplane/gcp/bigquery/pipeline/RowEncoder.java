@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes rows one at a time into a buffer that is reused for every row.
+ */
+interface RowEncoder<T> {
+
+    /**
+     * Encodes the row, replacing the previously encoded one.
+     */
+    void encode(T row, long rowIndex) throws IOException;
+
+    /**
+     * Returns the size in bytes of the encoded row.
+     */
+    int size();
+
+    /**
+     * Writes the encoded row to the output.
+     */
+    void writeTo(OutputStream output) throws IOException;
+
+    /**
+     * Passes rows through that were encoded already.
+     */
+    static RowEncoder<byte[]> encoded() {
+        return new RowEncoder<>() {
+            private byte[] row;
+
+            @Override
+            public void encode(byte[] row, long rowIndex) {
+                this.row = row;
+            }
+
+            @Override
+            public int size() {
+                return row.length;
+            }
+
+            @Override
+            public void writeTo(OutputStream output) throws IOException {
+                output.write(row);
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.Credentials;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadSettings;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StorageReadClient} on top of the Google client library. Broken row streams are resumed at their last offset
+ * by the library.
+ */
+public class GoogleStorageReadClient implements StorageReadClient {
+
+    private final BigQueryReadClient client;
+
+    public GoogleStorageReadClient(BigQueryReadClient client) {
+        this.client = client;
+    }
+
+    public static GoogleStorageReadClient create(@Nullable Credentials credentials) throws IOException {
+        var settings = BigQueryReadSettings.newBuilder();
+        if (credentials != null) {
+            settings.setCredentialsProvider(FixedCredentialsProvider.create(credentials));
+        }
+        return new GoogleStorageReadClient(BigQueryReadClient.create(settings.build()));
+    }
+
+    @Override
+    public StorageReadSession createReadSession(String project, TableId table, List<String> selectedFields, @Nullable String rowRestriction, int maxStreams) {
+        var tableProject = table.getProject() != null ? table.getProject() : project;
+        var readOptions = ReadSession.TableReadOptions.newBuilder().addAllSelectedFields(selectedFields);
+        if (rowRestriction != null) {
+            readOptions.setRowRestriction(rowRestriction);
+        }
+        var readSession = ReadSession.newBuilder()
+                .setTable(String.format("projects/%s/datasets/%s/tables/%s", tableProject, table.getDataset(), table.getTable()))
+                .setDataFormat(DataFormat.AVRO)
+                .setReadOptions(readOptions);
+        var request = CreateReadSessionRequest.newBuilder()
+                .setParent("projects/" + project)
+                .setReadSession(readSession)
+                .setMaxStreamCount(maxStreams)
+                .build();
+        var session = client.createReadSession(request);
+        var streamNames = session.getStreamsList().stream()
+                .map(ReadStream::getName)
+                .collect(Collectors.toList());
+        return new StorageReadSession(new Schema.Parser().parse(session.getAvroSchema().getSchema()), streamNames);
+    }
+
+    @Override
+    public Iterator<GenericRecord> readRows(StorageReadSession session, String streamName) {
+        var request = ReadRowsRequest.newBuilder().setReadStream(streamName).build();
+        return new AvroRowIterator(session.getAvroSchema(), client.readRowsCallable().call(request).iterator());
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Decodes the blocks of serialized Avro rows of the responses one row at a time.
+     */
+    private static class AvroRowIterator implements Iterator<GenericRecord> {
+
+        private final GenericDatumReader<GenericRecord> reader;
+        private final Iterator<ReadRowsResponse> responses;
+        private BinaryDecoder decoder;
+
+        AvroRowIterator(Schema schema, Iterator<ReadRowsResponse> responses) {
+            this.reader = new GenericDatumReader<>(schema);
+            this.responses = responses;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (decoder == null || decoder.isEnd()) {
+                    if (!responses.hasNext()) {
+                        return false;
+                    }
+                    var rows = responses.next().getAvroRows().getSerializedBinaryRows().toByteArray();
+                    decoder = DecoderFactory.get().binaryDecoder(rows, decoder);
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public GenericRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return reader.read(null, decoder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
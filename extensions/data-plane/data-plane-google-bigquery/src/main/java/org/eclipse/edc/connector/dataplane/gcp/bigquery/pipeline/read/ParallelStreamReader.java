@@ -0,0 +1,136 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import org.apache.avro.generic.GenericRecord;
+import org.eclipse.edc.spi.EdcException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads all streams of a read session concurrently and merges their rows into one sequential stream. A bounded queue
+ * between the readers and the consumer keeps a slow sink from letting the rows pile up in memory.
+ */
+public class ParallelStreamReader<T> {
+
+    private static final Object END_OF_STREAM = new Object();
+
+    private final StorageReadClient client;
+    private final ExecutorService executorService;
+    private final int queueCapacity;
+
+    public ParallelStreamReader(StorageReadClient client, ExecutorService executorService, int queueCapacity) {
+        this.client = client;
+        this.executorService = executorService;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts reading the streams of the session and returns the mapped rows in the order they arrive. Closing the
+     * returned stream stops the readers.
+     */
+    public Stream<T> read(StorageReadSession session, Function<GenericRecord, T> mapper) {
+        var queue = new ArrayBlockingQueue<>(queueCapacity);
+        var readers = new ArrayList<Future<?>>();
+        for (var streamName : session.getStreamNames()) {
+            readers.add(executorService.submit(() -> readStream(session, streamName, mapper, queue)));
+        }
+        var iterator = new MergingIterator<T>(queue, readers.size());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> readers.forEach(reader -> reader.cancel(true)));
+    }
+
+    private void readStream(StorageReadSession session, String streamName, Function<GenericRecord, T> mapper, BlockingQueue<Object> queue) {
+        try {
+            try {
+                var rows = client.readRows(session, streamName);
+                while (rows.hasNext()) {
+                    queue.put(mapper.apply(rows.next()));
+                }
+                queue.put(END_OF_STREAM);
+            } catch (RuntimeException e) {
+                queue.put(new ReadFailure(streamName, e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class ReadFailure {
+        private final String streamName;
+        private final RuntimeException cause;
+
+        ReadFailure(String streamName, RuntimeException cause) {
+            this.streamName = streamName;
+            this.cause = cause;
+        }
+    }
+
+    private static class MergingIterator<T> implements Iterator<T> {
+
+        private final BlockingQueue<Object> queue;
+        private int openStreams;
+        private Object next;
+
+        MergingIterator(BlockingQueue<Object> queue, int streams) {
+            this.queue = queue;
+            this.openStreams = streams;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && openStreams > 0) {
+                Object element;
+                try {
+                    element = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new EdcException("Interrupted while waiting for rows of the read streams", e);
+                }
+                if (element == END_OF_STREAM) {
+                    openStreams--;
+                } else if (element instanceof ReadFailure failure) {
+                    throw new EdcException("Error reading stream " + failure.streamName, failure.cause);
+                } else {
+                    next = element;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var element = (T) next;
+            next = null;
+            return element;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import com.google.cloud.bigquery.TableId;
+import org.apache.avro.generic.GenericRecord;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads tables through the BigQuery Storage Read API.
+ */
+public interface StorageReadClient extends AutoCloseable {
+
+    /**
+     * Creates a read session on the table that splits it into at most {@code maxStreams} streams of Avro rows.
+     *
+     * @param project project the session is billed to.
+     * @param table the table to read.
+     * @param selectedFields fields the rows are projected to, all fields if empty.
+     * @param rowRestriction SQL condition the rows are filtered by on the server, all rows if {@code null}.
+     * @param maxStreams maximum number of streams, the service may create fewer.
+     */
+    StorageReadSession createReadSession(String project, TableId table, List<String> selectedFields, @Nullable String rowRestriction, int maxStreams);
+
+    /**
+     * Reads the rows of one stream of the session. Rows are fetched while the iterator is consumed.
+     */
+    Iterator<GenericRecord> readRows(StorageReadSession session, String streamName);
+
+    @Override
+    void close();
+}
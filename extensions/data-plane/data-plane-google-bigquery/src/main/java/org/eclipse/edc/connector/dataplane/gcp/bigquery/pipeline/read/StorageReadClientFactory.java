@@ -0,0 +1,32 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import com.google.auth.Credentials;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Creates a {@link StorageReadClient} for the credentials of a transfer.
+ */
+@FunctionalInterface
+public interface StorageReadClientFactory {
+
+    /**
+     * Creates a client, {@code null} credentials stand for the application default credentials.
+     */
+    StorageReadClient create(@Nullable Credentials credentials) throws IOException;
+}
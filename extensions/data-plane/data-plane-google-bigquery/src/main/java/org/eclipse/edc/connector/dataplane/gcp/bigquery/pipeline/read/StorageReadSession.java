@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import org.apache.avro.Schema;
+
+import java.util.List;
+
+/**
+ * A read session on a table: the Avro schema of its rows and the streams that read them.
+ */
+public class StorageReadSession {
+
+    private final Schema avroSchema;
+    private final List<String> streamNames;
+
+    public StorageReadSession(Schema avroSchema, List<String> streamNames) {
+        this.avroSchema = avroSchema;
+        this.streamNames = List.copyOf(streamNames);
+    }
+
+    public Schema getAvroSchema() {
+        return avroSchema;
+    }
+
+    /**
+     * Names of the streams, empty if the table has no rows.
+     */
+    public List<String> getStreamNames() {
+        return streamNames;
+    }
+}
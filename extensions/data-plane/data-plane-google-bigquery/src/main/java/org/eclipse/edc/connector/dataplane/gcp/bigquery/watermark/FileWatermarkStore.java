@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores every watermark in a JSON file of its own in a directory, the file name is the SHA-256 hash of the key. A
+ * watermark is written to a temporary file first and moved over the previous one, so a crash never leaves a partly
+ * written watermark behind.
+ */
+public class FileWatermarkStore implements WatermarkStore {
+
+    private static final String FILE_SUFFIX = ".json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public FileWatermarkStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized @Nullable Watermark get(String key) {
+        var file = file(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), Watermark.class);
+        } catch (IOException e) {
+            throw new EdcException("Error reading watermark " + key, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(String key, Watermark watermark) {
+        try {
+            Files.createDirectories(directory);
+            var temporary = Files.createTempFile(directory, "watermark", ".tmp");
+            try {
+                objectMapper.writeValue(temporary.toFile(), watermark);
+                Files.move(temporary, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new EdcException("Error saving watermark " + key, e);
+        }
+    }
+
+    /**
+     * Whether no watermark was stored in the directory yet, e.g. because it was just created or wiped.
+     */
+    public synchronized boolean isEmpty() {
+        if (!Files.isDirectory(directory)) {
+            return true;
+        }
+        try (var files = Files.list(directory)) {
+            return files.noneMatch(file -> file.getFileName().toString().endsWith(FILE_SUFFIX));
+        } catch (IOException e) {
+            throw new EdcException("Error listing watermark directory " + directory, e);
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import org.eclipse.edc.connector.dataplane.spi.store.DataPlaneStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.edc.connector.dataplane.spi.DataFlowStates.COMPLETED;
+import static org.eclipse.edc.connector.dataplane.spi.DataFlowStates.FAILED;
+import static org.eclipse.edc.connector.dataplane.spi.DataFlowStates.NOTIFIED;
+
+/**
+ * Holds the watermark an extraction reached until its data flow is finished. The watermark is saved to the store once
+ * the flow completed and dropped if it failed, so the next extraction reads the rows of a failed transfer again.
+ */
+public class PendingWatermarks {
+
+    private final WatermarkStore watermarkStore;
+    private final DataPlaneStore dataPlaneStore;
+    private final Monitor monitor;
+    private final Map<String, PendingWatermark> pending = new ConcurrentHashMap<>();
+
+    public PendingWatermarks(WatermarkStore watermarkStore, DataPlaneStore dataPlaneStore, Monitor monitor) {
+        this.watermarkStore = watermarkStore;
+        this.dataPlaneStore = dataPlaneStore;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Commits the watermarks of finished data flows at a fixed interval.
+     */
+    public void scheduleCommit(ScheduledExecutorService scheduler, Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::commitFinished, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Keeps the watermark under the key until the data flow of the process is finished.
+     */
+    public void add(String processId, String key, Watermark watermark) {
+        pending.put(processId, new PendingWatermark(key, watermark));
+    }
+
+    /**
+     * Saves the watermarks of completed data flows and drops those of failed or unknown ones, the others stay pending.
+     */
+    public void commitFinished() {
+        pending.forEach((processId, watermark) -> {
+            try {
+                var dataFlow = dataPlaneStore.findById(processId);
+                if (dataFlow == null) {
+                    monitor.warning("Dropping watermark of " + watermark.key + ", data flow " + processId + " is not tracked");
+                    pending.remove(processId);
+                } else if (dataFlow.getState() == FAILED.code() || dataFlow.getErrorDetail() != null) {
+                    monitor.warning("Dropping watermark of " + watermark.key + ", data flow " + processId + " failed");
+                    pending.remove(processId);
+                } else if (dataFlow.getState() == COMPLETED.code() || dataFlow.getState() == NOTIFIED.code()) {
+                    watermarkStore.save(watermark.key, watermark.watermark);
+                    pending.remove(processId);
+                    monitor.info("Watermark of " + watermark.key + " advanced to " + watermark.watermark);
+                }
+            } catch (RuntimeException e) {
+                monitor.warning("Error committing watermark of " + watermark.key + ", retrying", e);
+            }
+        });
+    }
+
+    private static class PendingWatermark {
+        private final String key;
+        private final Watermark watermark;
+
+        PendingWatermark(String key, Watermark watermark) {
+            this.key = key;
+            this.watermark = watermark;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+
+import java.math.BigDecimal;
+
+/**
+ * The highest value of the watermark column that was delivered, together with the type of the column. Timestamps are
+ * kept as microseconds since the epoch, all other values in the text form BigQuery uses for them.
+ */
+public class Watermark {
+
+    private final StandardSQLTypeName type;
+    private final String value;
+
+    @JsonCreator
+    public Watermark(@JsonProperty("type") StandardSQLTypeName type, @JsonProperty("value") String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public StandardSQLTypeName getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the watermark as a query parameter of the type of its column.
+     */
+    public QueryParameterValue toParameter() {
+        return switch (type) {
+            case INT64 -> QueryParameterValue.int64(Long.parseLong(value));
+            case FLOAT64 -> QueryParameterValue.float64(Double.parseDouble(value));
+            case NUMERIC -> QueryParameterValue.numeric(new BigDecimal(value));
+            case BIGNUMERIC -> QueryParameterValue.bigNumeric(new BigDecimal(value));
+            case TIMESTAMP -> QueryParameterValue.timestamp(Long.parseLong(value));
+            case DATE -> QueryParameterValue.date(value);
+            case DATETIME -> QueryParameterValue.dateTime(value);
+            default -> QueryParameterValue.string(value);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + value;
+    }
+}
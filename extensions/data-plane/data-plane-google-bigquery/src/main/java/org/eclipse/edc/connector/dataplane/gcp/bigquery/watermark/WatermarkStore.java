@@ -0,0 +1,34 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps the last delivered watermark of every incrementally extracted source.
+ */
+public interface WatermarkStore {
+
+    /**
+     * Returns the watermark stored under the key, {@code null} if the source was never extracted.
+     */
+    @Nullable
+    Watermark get(String key);
+
+    /**
+     * Stores the watermark under the key, replacing the previous one.
+     */
+    void save(String key, Watermark watermark);
+}
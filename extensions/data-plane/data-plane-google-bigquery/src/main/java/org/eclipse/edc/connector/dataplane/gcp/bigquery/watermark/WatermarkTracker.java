@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Keeps track of the highest value of the watermark column in the rows that pass by. Not thread safe.
+ */
+public class WatermarkTracker {
+
+    private static final Set<StandardSQLTypeName> SUPPORTED_TYPES = EnumSet.of(StandardSQLTypeName.INT64, StandardSQLTypeName.FLOAT64,
+            StandardSQLTypeName.NUMERIC, StandardSQLTypeName.BIGNUMERIC, StandardSQLTypeName.TIMESTAMP, StandardSQLTypeName.DATE,
+            StandardSQLTypeName.DATETIME, StandardSQLTypeName.STRING);
+
+    private final int position;
+    private final StandardSQLTypeName type;
+    private Comparable<Object> max;
+
+    /**
+     * Creates a tracker of the column among the fields of the rows.
+     *
+     * @throws EdcException if the rows have no such column or its type cannot be ordered.
+     */
+    public WatermarkTracker(FieldList fields, String column) {
+        Field field;
+        try {
+            field = fields.get(column);
+        } catch (IllegalArgumentException e) {
+            throw new EdcException("Watermark column " + column + " is not in the result");
+        }
+        type = field.getType().getStandardType();
+        if (!SUPPORTED_TYPES.contains(type) || field.getMode() == Field.Mode.REPEATED) {
+            throw new EdcException("Watermark column " + column + " of type " + type + " is not supported");
+        }
+        position = fields.getIndex(column);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void observe(FieldValueList row) {
+        var value = row.get(position);
+        if (value.isNull()) {
+            return;
+        }
+        var comparable = (Comparable<Object>) (Comparable<?>) switch (type) {
+            case INT64 -> value.getLongValue();
+            case FLOAT64 -> value.getDoubleValue();
+            case NUMERIC, BIGNUMERIC -> value.getNumericValue();
+            case TIMESTAMP -> value.getTimestampValue();
+            // ISO dates and datetimes compare like their text
+            default -> value.getStringValue();
+        };
+        if (max == null || comparable.compareTo(max) > 0) {
+            max = comparable;
+        }
+    }
+
+    /**
+     * Returns the highest value seen so far, {@code null} if no row had a value.
+     */
+    public @Nullable Watermark getWatermark() {
+        if (max == null) {
+            return null;
+        }
+        Object value = max;
+        return new Watermark(type, value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+    }
+}
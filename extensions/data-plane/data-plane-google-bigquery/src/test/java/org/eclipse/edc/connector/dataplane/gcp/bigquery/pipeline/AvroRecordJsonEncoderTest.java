@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroRecordJsonEncoderTest {
+
+    private static final FieldList FIELDS = FieldList.of(
+            Field.of("id", LegacySQLTypeName.INTEGER),
+            Field.of("amount", LegacySQLTypeName.NUMERIC),
+            Field.of("payload", LegacySQLTypeName.BYTES),
+            Field.of("created", LegacySQLTypeName.TIMESTAMP),
+            Field.of("day", LegacySQLTypeName.DATE),
+            Field.newBuilder("tags", LegacySQLTypeName.STRING).setMode(Field.Mode.REPEATED).build(),
+            Field.of("address", LegacySQLTypeName.RECORD, Field.of("city", LegacySQLTypeName.STRING), Field.of("zip", LegacySQLTypeName.INTEGER)));
+
+    // the Avro schema the Storage Read API sends for the fields above
+    private static final Schema AVRO_SCHEMA = new Schema.Parser().parse("""
+            {"type": "record", "name": "__root__", "fields": [
+              {"name": "id", "type": ["null", "long"]},
+              {"name": "amount", "type": ["null", {"type": "bytes", "logicalType": "decimal", "precision": 38, "scale": 9}]},
+              {"name": "payload", "type": ["null", "bytes"]},
+              {"name": "created", "type": ["null", {"type": "long", "logicalType": "timestamp-micros"}]},
+              {"name": "day", "type": ["null", {"type": "int", "logicalType": "date"}]},
+              {"name": "tags", "type": {"type": "array", "items": "string"}},
+              {"name": "address", "type": ["null", {"type": "record", "name": "address", "fields": [
+                {"name": "city", "type": ["null", "string"]},
+                {"name": "zip", "type": ["null", "long"]}]}]}]}
+            """);
+
+    @Test
+    void encode_decodesValuesByTheirBigQueryType() throws IOException {
+        var encoder = new AvroRecordJsonEncoder(new JsonFactory(), FIELDS, AVRO_SCHEMA);
+        var address = new GenericData.Record(AVRO_SCHEMA.getField("address").schema().getTypes().get(1));
+        address.put("city", "Berlin");
+        address.put("zip", 10115L);
+        var row = new GenericData.Record(AVRO_SCHEMA);
+        row.put("id", 7L);
+        row.put("amount", ByteBuffer.wrap(new BigDecimal("12.340000000").unscaledValue().toByteArray()));
+        row.put("payload", ByteBuffer.wrap("edc".getBytes(StandardCharsets.UTF_8)));
+        row.put("created", ChronoUnit.MICROS.between(Instant.EPOCH, Instant.parse("2023-10-01T00:00:00.123456Z")));
+        row.put("day", (int) LocalDate.parse("2023-10-01").toEpochDay());
+        row.put("tags", List.of("a", "b"));
+        row.put("address", address);
+
+        encoder.encode(row, 3);
+
+        assertThat(encoded(encoder)).isEqualTo("{\"__row__\":\"3\",\"id\":7,\"amount\":\"12.34\",\"payload\":\"ZWRj\","
+                + "\"created\":\"1696118400.123456\",\"day\":\"2023-10-01\",\"tags\":[\"a\",\"b\"],"
+                + "\"address\":{\"city\":\"Berlin\",\"zip\":10115}}");
+    }
+
+    @Test
+    void encode_writesNullsAndSelectedFieldsOnly() throws IOException {
+        var fields = FieldList.of(FIELDS.get("day"), FIELDS.get("id"));
+        var encoder = new AvroRecordJsonEncoder(new JsonFactory(), fields, AVRO_SCHEMA);
+        var row = new GenericData.Record(AVRO_SCHEMA);
+        row.put("id", 1L);
+
+        encoder.encode(row, 0);
+
+        assertThat(encoded(encoder)).isEqualTo("{\"__row__\":\"0\",\"day\":null,\"id\":1}");
+        assertThat(encoder.size()).isEqualTo(encoded(encoder).length());
+    }
+
+    @Test
+    void create_failsOnFieldMissingInTheRows() {
+        var fields = FieldList.of(Field.of("unknown", LegacySQLTypeName.STRING));
+
+        assertThatThrownBy(() -> new AvroRecordJsonEncoder(new JsonFactory(), fields, AVRO_SCHEMA))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    private String encoded(AvroRecordJsonEncoder encoder) throws IOException {
+        var output = new ByteArrayOutputStream();
+        encoder.writeTo(output);
+        return output.toString();
+    }
+}
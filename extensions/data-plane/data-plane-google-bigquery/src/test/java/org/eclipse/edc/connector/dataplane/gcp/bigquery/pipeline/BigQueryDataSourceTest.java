@@ -0,0 +1,221 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableResult;
+import org.eclipse.edc.connector.dataplane.bigquery.spi.BigQueryRequestParams;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryClientProvider;
+import org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark.WatermarkStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.CHUNK_ROWS;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.SELECTED_FIELDS;
+import static org.eclipse.edc.connector.dataplane.gcp.bigquery.BigQueryStoreSchema.WATERMARK_COLUMN;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class BigQueryDataSourceTest {
+
+    private static final TableId TABLE_ID = TableId.of("project", "dataset", "table");
+    private static final Schema SCHEMA = Schema.of(Field.of("id", LegacySQLTypeName.INTEGER));
+    private static final int PAGES = 3;
+    private static final int PAGE_ROWS = 2;
+
+    private final BigQuery bigquery = mock(BigQuery.class);
+    private final AtomicInteger fetchedPages = new AtomicInteger();
+
+    @Test
+    void openPartStream_takesFirstPartBeforeLaterPagesAreFetched() throws IOException {
+        var table = mock(Table.class);
+        when(table.getDefinition()).thenReturn(StandardTableDefinition.of(SCHEMA));
+        when(bigquery.getTable(TABLE_ID)).thenReturn(table);
+        var result = mock(TableResult.class);
+        when(result.iterateAll()).thenReturn(this::pagedRows);
+        when(bigquery.listTableData(TABLE_ID, SCHEMA)).thenReturn(result);
+
+        var parts = dataSource().openPartStream().getContent().iterator();
+
+        assertThat(parts.next().name()).isEqualTo("schema");
+        var firstChunk = parts.next();
+        assertThat(fetchedPages).hasValue(1);
+        assertThat(new String(firstChunk.openStream().readAllBytes(), StandardCharsets.UTF_8)).contains("\"id\":0");
+
+        var chunks = 1;
+        while (parts.hasNext()) {
+            parts.next();
+            chunks++;
+        }
+        assertThat(chunks).isEqualTo(PAGES * PAGE_ROWS);
+        assertThat(fetchedPages).hasValue(PAGES);
+    }
+
+    @Test
+    void openPartStream_takesFirstQueryResultPartBeforeLaterPagesAreFetched() throws Exception {
+        var job = mock(Job.class);
+        when(bigquery.create(any(JobInfo.class))).thenReturn(job);
+        var result = mock(TableResult.class);
+        when(result.getSchema()).thenReturn(SCHEMA);
+        when(result.iterateAll()).thenReturn(this::pagedRows);
+        when(job.getQueryResults()).thenReturn(result);
+        var jobPoller = mock(BigQueryJobPoller.class);
+        when(jobPoller.whenDone(job)).thenReturn(CompletableFuture.completedFuture(job));
+
+        var parts = dataSource("SELECT id FROM dataset.table", jobPoller).openPartStream().getContent().iterator();
+
+        assertThat(parts.next().name()).isEqualTo("schema");
+        var firstChunk = parts.next();
+        assertThat(fetchedPages).hasValue(1);
+        assertThat(new String(firstChunk.openStream().readAllBytes(), StandardCharsets.UTF_8)).contains("\"id\":0");
+
+        var chunks = 1;
+        while (parts.hasNext()) {
+            parts.next();
+            chunks++;
+        }
+        assertThat(chunks).isEqualTo(PAGES * PAGE_ROWS);
+        assertThat(fetchedPages).hasValue(PAGES);
+    }
+
+    @Test
+    void openPartStream_readsSelectedFieldsOfTableThroughProjectedQuery() {
+        when(bigquery.create(any(JobInfo.class))).thenReturn(mock(Job.class));
+        var source = DataAddress.Builder.newInstance().type("BigQueryData").property(SELECTED_FIELDS, "id").build();
+
+        var result = dataSource(source, null).openPartStream();
+
+        assertThat(result.succeeded()).isTrue();
+        var jobInfo = ArgumentCaptor.forClass(JobInfo.class);
+        verify(bigquery).create(jobInfo.capture());
+        assertThat(jobInfo.getValue().<QueryJobConfiguration>getConfiguration().getQuery()).startsWith("SELECT `id` FROM");
+        verifyNoMoreInteractions(bigquery);
+    }
+
+    @Test
+    void openPartStream_failsWhenWatermarkColumnIsNotSelected() {
+        var source = DataAddress.Builder.newInstance().type("BigQueryData")
+                .property(WATERMARK_COLUMN, "updated_at")
+                .property(SELECTED_FIELDS, "id")
+                .build();
+
+        var result = dataSource(source, mock(WatermarkStore.class)).openPartStream();
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("updated_at").contains(SELECTED_FIELDS);
+        verifyNoInteractions(bigquery);
+    }
+
+    @Test
+    void openPartStream_failsIncrementalExtractionWithoutWatermarkStore() {
+        var source = DataAddress.Builder.newInstance().type("BigQueryData").property(WATERMARK_COLUMN, "updated_at").build();
+
+        var result = dataSource(source, null).openPartStream();
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("watermark directory");
+        verifyNoInteractions(bigquery);
+    }
+
+    private BigQueryDataSource dataSource() {
+        return dataSource(null, mock(BigQueryJobPoller.class));
+    }
+
+    private BigQueryDataSource dataSource(DataAddress source, WatermarkStore watermarkStore) {
+        return dataSourceBuilder(source, null, mock(BigQueryJobPoller.class)).watermarkStore(watermarkStore).build();
+    }
+
+    private BigQueryDataSource dataSource(String query, BigQueryJobPoller jobPoller) {
+        var source = DataAddress.Builder.newInstance().type("BigQueryData").property(CHUNK_ROWS, "1").build();
+        return dataSourceBuilder(source, query, jobPoller).build();
+    }
+
+    private BigQueryDataSource.Builder dataSourceBuilder(DataAddress source, String query, BigQueryJobPoller jobPoller) {
+        var request = DataFlowRequest.Builder.newInstance()
+                .id("request")
+                .processId("process")
+                .sourceDataAddress(source)
+                .destinationDataAddress(DataAddress.Builder.newInstance().type("BigQueryData").build())
+                .build();
+        var params = mock(BigQueryRequestParams.class);
+        when(params.getProject()).thenReturn(TABLE_ID.getProject());
+        when(params.getDataset()).thenReturn(TABLE_ID.getDataset());
+        when(params.getTable()).thenReturn(TABLE_ID.getTable());
+        when(params.getRequest()).thenReturn(request);
+        when(params.getQuery()).thenReturn(query);
+        var clientProvider = mock(BigQueryClientProvider.class);
+        when(clientProvider.getClient("project", null, null)).thenReturn(bigquery);
+
+        return BigQueryDataSource.Builder.newInstance()
+                .requestId("request")
+                .monitor(mock(Monitor.class))
+                .params(params)
+                .jobPoller(jobPoller)
+                .clientProvider(clientProvider);
+    }
+
+    /**
+     * Returns the rows page by page like the BigQuery client, a page is fetched only once the previous one was consumed.
+     */
+    private Iterator<FieldValueList> pagedRows() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < PAGES * PAGE_ROWS;
+            }
+
+            @Override
+            public FieldValueList next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (row % PAGE_ROWS == 0) {
+                    fetchedPages.incrementAndGet();
+                }
+                var value = FieldValue.of(FieldValue.Attribute.PRIMITIVE, String.valueOf(row++));
+                return FieldValueList.of(List.of(value), SCHEMA.getFields());
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobStatus;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BigQueryJobPollerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final BigQueryJobPoller poller = new BigQueryJobPoller(scheduler, Duration.ofMillis(1), Duration.ofMillis(4), mock(Monitor.class));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void whenDone_completesOnceJobIsDone() throws Exception {
+        var job = job(JobStatus.State.RUNNING, null);
+        var done = job(JobStatus.State.DONE, null);
+        when(job.reload()).thenReturn(job, job, done);
+
+        var result = poller.whenDone(job).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isSameAs(done);
+        verify(job, times(3)).reload();
+    }
+
+    @Test
+    void whenDone_keepsPollingAfterPollingError() throws Exception {
+        var job = job(JobStatus.State.RUNNING, null);
+        var done = job(JobStatus.State.DONE, null);
+        when(job.reload()).thenThrow(new RuntimeException("unavailable")).thenReturn(done);
+
+        assertThat(poller.whenDone(job).get(5, TimeUnit.SECONDS)).isSameAs(done);
+    }
+
+    @Test
+    void whenDone_failsIfJobFailed() {
+        var job = job(JobStatus.State.RUNNING, null);
+        var failed = job(JobStatus.State.DONE, new BigQueryError("invalidQuery", "query", "Syntax error"));
+        when(job.reload()).thenReturn(failed);
+
+        assertThatThrownBy(() -> poller.whenDone(job).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(EdcException.class)
+                .hasMessageContaining("Syntax error");
+    }
+
+    @Test
+    void whenDone_failsIfJobNoLongerExists() {
+        var job = job(JobStatus.State.RUNNING, null);
+        when(job.reload()).thenReturn(null);
+
+        assertThatThrownBy(() -> poller.whenDone(job).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(EdcException.class);
+    }
+
+    private static Job job(JobStatus.State state, BigQueryError error) {
+        var status = mock(JobStatus.class);
+        when(status.getState()).thenReturn(state);
+        when(status.getError()).thenReturn(error);
+        var job = mock(Job.class);
+        when(job.getJobId()).thenReturn(JobId.of("job"));
+        when(job.getStatus()).thenReturn(status);
+        return job;
+    }
+}
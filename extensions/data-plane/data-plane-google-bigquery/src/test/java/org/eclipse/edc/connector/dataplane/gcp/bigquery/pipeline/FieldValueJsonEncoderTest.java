@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldValueJsonEncoderTest {
+
+    private static final FieldList FIELDS = FieldList.of(
+            Field.of("id", LegacySQLTypeName.INTEGER),
+            Field.of("score", LegacySQLTypeName.FLOAT),
+            Field.of("active", LegacySQLTypeName.BOOLEAN),
+            Field.of("amount", LegacySQLTypeName.NUMERIC),
+            Field.newBuilder("tags", LegacySQLTypeName.STRING).setMode(Field.Mode.REPEATED).build(),
+            Field.of("address", LegacySQLTypeName.RECORD, Field.of("city", LegacySQLTypeName.STRING), Field.of("zip", LegacySQLTypeName.INTEGER)));
+
+    @Test
+    void encode_keepsTypesAndNestedFields() throws IOException {
+        var encoder = new FieldValueJsonEncoder(new JsonFactory(), FIELDS);
+        var address = FieldValueList.of(List.of(primitive("Berlin"), primitive("10115")));
+        var row = FieldValueList.of(List.of(
+                primitive("7"),
+                primitive("1.5"),
+                primitive("true"),
+                primitive("12.3400000001"),
+                FieldValue.of(FieldValue.Attribute.REPEATED, List.of(primitive("a"), primitive("b"))),
+                FieldValue.of(FieldValue.Attribute.RECORD, address)), FIELDS);
+
+        encoder.encode(row, 3);
+
+        assertThat(encoded(encoder)).isEqualTo("{\"__row__\":\"3\",\"id\":7,\"score\":1.5,\"active\":true,\"amount\":\"12.3400000001\","
+                + "\"tags\":[\"a\",\"b\"],\"address\":{\"city\":\"Berlin\",\"zip\":10115}}");
+    }
+
+    @Test
+    void encode_replacesPreviousRowAndWritesNulls() throws IOException {
+        var fields = FieldList.of(Field.of("id", LegacySQLTypeName.INTEGER));
+        var encoder = new FieldValueJsonEncoder(new JsonFactory(), fields);
+
+        encoder.encode(FieldValueList.of(List.of(primitive("1")), fields), 0);
+        encoder.encode(FieldValueList.of(List.of(primitive(null)), fields), 1);
+
+        assertThat(encoded(encoder)).isEqualTo("{\"__row__\":\"1\",\"id\":null}");
+        assertThat(encoder.size()).isEqualTo(encoded(encoder).length());
+    }
+
+    @Test
+    void encode_writesSelectedFieldsInTheirOrder() throws IOException {
+        var fields = FieldList.of(Field.of("id", LegacySQLTypeName.INTEGER), Field.of("name", LegacySQLTypeName.STRING),
+                Field.of("payload", LegacySQLTypeName.STRING));
+        var encoder = new FieldValueJsonEncoder(new JsonFactory(), fields, List.of("name", "id"));
+
+        encoder.encode(FieldValueList.of(List.of(primitive("1"), primitive("a"), primitive("large")), fields), 0);
+
+        assertThat(encoded(encoder)).isEqualTo("{\"__row__\":\"0\",\"name\":\"a\",\"id\":1}");
+    }
+
+    private FieldValue primitive(String value) {
+        return FieldValue.of(FieldValue.Attribute.PRIMITIVE, value);
+    }
+
+    private String encoded(FieldValueJsonEncoder encoder) throws IOException {
+        var output = new ByteArrayOutputStream();
+        encoder.writeTo(output);
+        return output.toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonChunkIteratorTest {
+
+    @Test
+    void next_packsRowsUpToRowCount() {
+        var chunks = chunks(rows(5, "{\"id\":1}"), 2, Long.MAX_VALUE);
+
+        assertThat(chunks).extracting(NdjsonChunkIterator.Chunk::name).containsExactly("rows 0-1", "rows 2-3", "rows 4-4");
+        assertThat(new String(chunks.get(0).content())).isEqualTo("{\"id\":1}\n{\"id\":1}\n");
+    }
+
+    @Test
+    void next_packsRowsUpToByteSize() {
+        // every row takes 9 bytes with its line terminator
+        var chunks = chunks(rows(5, "{\"id\":1}"), 100, 20);
+
+        assertThat(chunks).extracting(NdjsonChunkIterator.Chunk::name).containsExactly("rows 0-1", "rows 2-3", "rows 4-4");
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.content().length).isLessThanOrEqualTo(20));
+    }
+
+    @Test
+    void next_putsRowLargerThanByteSizeIntoOwnChunk() {
+        var chunks = chunks(List.of("{\"id\":1}".getBytes(), "{\"payload\":\"large\"}".getBytes(), "{\"id\":2}".getBytes()), 100, 10);
+
+        assertThat(chunks).extracting(NdjsonChunkIterator.Chunk::name).containsExactly("rows 0-0", "rows 1-1", "rows 2-2");
+    }
+
+    private List<byte[]> rows(int count, String row) {
+        return IntStream.range(0, count).mapToObj(i -> row.getBytes()).collect(Collectors.toList());
+    }
+
+    private List<NdjsonChunkIterator.Chunk> chunks(List<byte[]> rows, int maxRows, long maxBytes) {
+        var chunks = new ArrayList<NdjsonChunkIterator.Chunk>();
+        new NdjsonChunkIterator<>(rows.iterator(), RowEncoder.encoded(), maxRows, maxBytes).forEachRemaining(chunks::add);
+        return chunks;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.QueryParameterValue;
+import org.eclipse.edc.spi.EdcException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParameterizedQueryTest {
+
+    @Test
+    void of_turnsPlaceholdersIntoTypedParameters() {
+        var values = Map.of("customer", "o'brien", "limit", "10", "ratio", "0.5", "active", "true");
+
+        var query = ParameterizedQuery.of("SELECT * FROM t WHERE name = '@@customer' AND ratio > @@ratio AND active = @@active "
+                + "AND other = \"@@customer\" LIMIT @@limit", values::get);
+
+        assertThat(query.getQuery()).isEqualTo("SELECT * FROM t WHERE name = @customer AND ratio > @ratio AND active = @active "
+                + "AND other = @customer LIMIT @limit");
+        assertThat(query.getParameters()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "customer", QueryParameterValue.string("o'brien"),
+                "ratio", QueryParameterValue.float64(0.5),
+                "active", QueryParameterValue.bool(true),
+                "limit", QueryParameterValue.int64(10L)));
+    }
+
+    @Test
+    void of_keepsQueryTextStableForDifferentValues() {
+        var template = "SELECT * FROM t WHERE id = @@id";
+
+        var first = ParameterizedQuery.of(template, name -> "1");
+        var second = ParameterizedQuery.of(template, name -> "2");
+
+        assertThat(first.getQuery()).isEqualTo(second.getQuery());
+    }
+
+    @Test
+    void of_failsIfPlaceholderHasNoValue() {
+        assertThatThrownBy(() -> ParameterizedQuery.of("SELECT * FROM t WHERE id = @@id", name -> null))
+                .isInstanceOf(EdcException.class)
+                .hasMessageContaining("id");
+    }
+
+    @Test
+    void of_keepsStringLiteralsWithoutPlaceholders() {
+        var query = ParameterizedQuery.of("SELECT 'it\\'s @ noon', \"a \\\" b\" FROM t WHERE id = @@id", name -> "1");
+
+        assertThat(query.getQuery()).isEqualTo("SELECT 'it\\'s @ noon', \"a \\\" b\" FROM t WHERE id = @id");
+    }
+
+    @Test
+    void of_failsIfPlaceholderIsPartOfStringLiteral() {
+        assertThatThrownBy(() -> ParameterizedQuery.of("SELECT * FROM t WHERE name LIKE 'prefix_@@name'", name -> "x"))
+                .isInstanceOf(EdcException.class)
+                .hasMessageContaining("@@name")
+                .hasMessageContaining("string literal");
+    }
+
+    @Test
+    void of_failsIfPlaceholderIsTableName() {
+        for (var template : List.of("SELECT * FROM @@table", "SELECT * FROM `project.@@dataset.table`",
+                "SELECT * FROM project.@@dataset.table", "SELECT * FROM t JOIN @@table USING (id)")) {
+            assertThatThrownBy(() -> ParameterizedQuery.of(template, name -> "x"))
+                    .as(template)
+                    .isInstanceOf(EdcException.class)
+                    .hasMessageContaining("table, dataset or column name");
+        }
+    }
+
+    @Test
+    void greaterThan_wrapsQueryAndAddsParameter() {
+        var query = ParameterizedQuery.of("SELECT * FROM t WHERE id = @@id;", name -> "1")
+                .greaterThan("ingested_at", "edc_watermark", QueryParameterValue.int64(5L));
+
+        assertThat(query.getQuery()).isEqualTo("SELECT * FROM (SELECT * FROM t WHERE id = @id) WHERE `ingested_at` > @edc_watermark");
+        assertThat(query.getParameters()).containsEntry("id", QueryParameterValue.int64(1L))
+                .containsEntry("edc_watermark", QueryParameterValue.int64(5L));
+    }
+
+    @Test
+    void greaterThan_failsIfColumnIsNoIdentifier() {
+        var query = ParameterizedQuery.of("SELECT * FROM t", name -> null);
+
+        assertThatThrownBy(() -> query.greaterThan("id` OR 1=1 --", "edc_watermark", QueryParameterValue.int64(5L)))
+                .isInstanceOf(EdcException.class);
+    }
+
+    @Test
+    void select_projectsAndRestrictsTableItself() {
+        var query = ParameterizedQuery.ofTable("project", "dataset", "table")
+                .select(List.of("id", "name"), "`_PARTITIONDATE` >= @from", Map.of("from", QueryParameterValue.date("2023-10-01")));
+
+        assertThat(query.getQuery()).isEqualTo("SELECT `id`, `name` FROM `project.dataset.table` WHERE `_PARTITIONDATE` >= @from");
+        assertThat(query.getParameters()).containsExactlyEntriesOf(Map.of("from", QueryParameterValue.date("2023-10-01")));
+    }
+
+    @Test
+    void select_failsIfParameterIsTaken() {
+        var query = ParameterizedQuery.of("SELECT * FROM t WHERE id = @@from", name -> "1");
+
+        assertThatThrownBy(() -> query.select(List.of(), "x > @from", Map.of("from", QueryParameterValue.int64(2L))))
+                .isInstanceOf(EdcException.class);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline;
+
+import com.google.cloud.bigquery.QueryParameterValue;
+import org.eclipse.edc.spi.EdcException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class PartitionFilterTest {
+
+    @Test
+    void of_typesBoundsByTheirFormat() {
+        var filter = PartitionFilter.of("event_date", "2023-10-01", "2023-10-08");
+
+        assertThat(filter).isNotNull();
+        assertThat(filter.condition()).isEqualTo("`event_date` >= @edc_partition_from AND `event_date` < @edc_partition_to");
+        assertThat(filter.parameters()).containsExactly(
+                entry(PartitionFilter.FROM_PARAMETER, QueryParameterValue.date("2023-10-01")),
+                entry(PartitionFilter.TO_PARAMETER, QueryParameterValue.date("2023-10-08")));
+        assertThat(filter.rowRestriction()).isEqualTo("event_date >= DATE '2023-10-01' AND event_date < DATE '2023-10-08'");
+    }
+
+    @Test
+    void of_acceptsSingleBound() {
+        var filter = PartitionFilter.of("_PARTITIONTIME", "2023-10-01T00:00:00Z", null);
+
+        assertThat(filter).isNotNull();
+        assertThat(filter.parameters()).containsExactly(
+                entry(PartitionFilter.FROM_PARAMETER, QueryParameterValue.timestamp(1696118400000000L)));
+        assertThat(filter.rowRestriction()).isEqualTo("_PARTITIONTIME >= TIMESTAMP '2023-10-01T00:00:00Z'");
+    }
+
+    @Test
+    void of_returnsNullWithoutColumn() {
+        assertThat(PartitionFilter.of(null, "1", "2")).isNull();
+    }
+
+    @Test
+    void of_failsForInvalidFilters() {
+        assertThatThrownBy(() -> PartitionFilter.of("id", null, " ")).isInstanceOf(EdcException.class);
+        assertThatThrownBy(() -> PartitionFilter.of("id) OR (1=1", "1", null)).isInstanceOf(EdcException.class);
+        assertThatThrownBy(() -> PartitionFilter.of("day", "yesterday", null)).isInstanceOf(EdcException.class);
+    }
+}
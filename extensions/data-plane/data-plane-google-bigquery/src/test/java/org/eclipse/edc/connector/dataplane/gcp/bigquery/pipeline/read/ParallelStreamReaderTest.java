@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.pipeline.read;
+
+import com.google.cloud.bigquery.TableId;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.eclipse.edc.spi.EdcException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelStreamReaderTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("row").fields().requiredLong("id").endRecord();
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void read_mergesRowsOfAllStreams() {
+        var client = new LocalStorageReadClient(Map.of(
+                "stream-0", LongStream.range(0, 500).boxed().collect(Collectors.toList()),
+                "stream-1", LongStream.range(500, 1000).boxed().collect(Collectors.toList()),
+                "stream-2", List.of()));
+        var session = client.createReadSession("project", TableId.of("dataset", "table"), List.of(), null, 3);
+
+        try (var rows = new ParallelStreamReader<Long>(client, executorService, 16).read(session, row -> (Long) row.get("id"))) {
+            assertThat(rows.collect(Collectors.toList()))
+                    .containsExactlyInAnyOrderElementsOf(LongStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void read_failsWhenStreamFails() {
+        var client = new LocalStorageReadClient(Map.of("stream-0", List.of(1L, 2L), "broken", List.of()));
+        var session = client.createReadSession("project", TableId.of("dataset", "table"), List.of(), null, 2);
+
+        try (var rows = new ParallelStreamReader<Long>(client, executorService, 16).read(session, row -> (Long) row.get("id"))) {
+            assertThatThrownBy(() -> rows.collect(Collectors.toList()))
+                    .isInstanceOf(EdcException.class)
+                    .hasMessageContaining("broken");
+        }
+    }
+
+    /**
+     * Serves the rows of every stream from memory, the stream named {@code broken} fails.
+     */
+    private static class LocalStorageReadClient implements StorageReadClient {
+
+        private final Map<String, List<Long>> streams;
+
+        LocalStorageReadClient(Map<String, List<Long>> streams) {
+            this.streams = streams;
+        }
+
+        @Override
+        public StorageReadSession createReadSession(String project, TableId table, List<String> selectedFields, String rowRestriction, int maxStreams) {
+            return new StorageReadSession(SCHEMA, List.copyOf(streams.keySet()));
+        }
+
+        @Override
+        public Iterator<GenericRecord> readRows(StorageReadSession session, String streamName) {
+            if ("broken".equals(streamName)) {
+                throw new IllegalStateException("stream expired");
+            }
+            return streams.get(streamName).stream()
+                    .map(id -> {
+                        GenericRecord row = new GenericData.Record(SCHEMA);
+                        row.put("id", id);
+                        return row;
+                    })
+                    .iterator();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
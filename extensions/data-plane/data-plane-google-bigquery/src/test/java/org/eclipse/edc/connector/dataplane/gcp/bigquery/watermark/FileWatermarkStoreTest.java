@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileWatermarkStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void save_replacesPreviousWatermark() {
+        var store = new FileWatermarkStore(directory.resolve("watermarks"), new ObjectMapper());
+
+        store.save("project.dataset.table", new Watermark(StandardSQLTypeName.INT64, "10"));
+        store.save("project.dataset.table", new Watermark(StandardSQLTypeName.INT64, "20"));
+
+        var watermark = new FileWatermarkStore(directory.resolve("watermarks"), new ObjectMapper()).get("project.dataset.table");
+        assertThat(watermark).isNotNull();
+        assertThat(watermark.getType()).isEqualTo(StandardSQLTypeName.INT64);
+        assertThat(watermark.getValue()).isEqualTo("20");
+        assertThat(directory.resolve("watermarks")).isDirectoryContaining(path -> path.toString().endsWith(".json"))
+                .isNotEmptyDirectory();
+    }
+
+    @Test
+    void get_returnsNullForUnknownKey() {
+        var store = new FileWatermarkStore(directory, new ObjectMapper());
+
+        assertThat(store.get("project.dataset.table")).isNull();
+    }
+
+    @Test
+    void isEmpty_untilFirstWatermarkSaved() {
+        var store = new FileWatermarkStore(directory.resolve("watermarks"), new ObjectMapper());
+
+        assertThat(store.isEmpty()).isTrue();
+        store.save("project.dataset.table", new Watermark(StandardSQLTypeName.INT64, "10"));
+        assertThat(store.isEmpty()).isFalse();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.eclipse.edc.connector.dataplane.spi.DataFlow;
+import org.eclipse.edc.connector.dataplane.spi.DataFlowStates;
+import org.eclipse.edc.connector.dataplane.spi.store.DataPlaneStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PendingWatermarksTest {
+
+    private static final Watermark WATERMARK = new Watermark(StandardSQLTypeName.INT64, "20");
+
+    private final WatermarkStore watermarkStore = mock(WatermarkStore.class);
+    private final DataPlaneStore dataPlaneStore = mock(DataPlaneStore.class);
+    private final PendingWatermarks pendingWatermarks = new PendingWatermarks(watermarkStore, dataPlaneStore, mock(Monitor.class));
+
+    @Test
+    void commitFinished_keepsWatermarkWhileTransferRuns() {
+        when(dataPlaneStore.findById("process")).thenReturn(dataFlow(DataFlowStates.RECEIVED, null));
+        pendingWatermarks.add("process", "project.dataset.table", WATERMARK);
+
+        pendingWatermarks.commitFinished();
+
+        verify(watermarkStore, never()).save(anyString(), any());
+    }
+
+    @Test
+    void commitFinished_savesWatermarkOnceTransferCompleted() {
+        when(dataPlaneStore.findById("process")).thenReturn(dataFlow(DataFlowStates.RECEIVED, null),
+                dataFlow(DataFlowStates.COMPLETED, null));
+        pendingWatermarks.add("process", "project.dataset.table", WATERMARK);
+
+        pendingWatermarks.commitFinished();
+        pendingWatermarks.commitFinished();
+        pendingWatermarks.commitFinished();
+
+        verify(watermarkStore).save("project.dataset.table", WATERMARK);
+    }
+
+    @Test
+    void commitFinished_dropsWatermarkOfFailedTransfer() {
+        when(dataPlaneStore.findById("process")).thenReturn(dataFlow(DataFlowStates.NOTIFIED, "sink failed"));
+        pendingWatermarks.add("process", "project.dataset.table", WATERMARK);
+
+        pendingWatermarks.commitFinished();
+        when(dataPlaneStore.findById("process")).thenReturn(dataFlow(DataFlowStates.COMPLETED, null));
+        pendingWatermarks.commitFinished();
+
+        verify(watermarkStore, never()).save(anyString(), any());
+    }
+
+    private DataFlow dataFlow(DataFlowStates state, String errorDetail) {
+        return DataFlow.Builder.newInstance()
+                .id("process")
+                .state(state.code())
+                .errorDetail(errorDetail)
+                .build();
+    }
+}
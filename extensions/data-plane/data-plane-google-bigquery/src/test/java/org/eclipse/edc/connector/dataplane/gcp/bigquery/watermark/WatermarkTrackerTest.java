@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2023 Google LLC
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Google LLC - Initial implementation
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.bigquery.watermark;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.eclipse.edc.spi.EdcException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WatermarkTrackerTest {
+
+    private static final FieldList FIELDS = FieldList.of(
+            Field.of("name", StandardSQLTypeName.STRING),
+            Field.of("id", StandardSQLTypeName.INT64),
+            Field.of("ingested_at", StandardSQLTypeName.TIMESTAMP),
+            Field.of("tags", StandardSQLTypeName.GEOGRAPHY));
+
+    @Test
+    void getWatermark_returnsHighestValue() {
+        var tracker = new WatermarkTracker(FIELDS, "id");
+
+        tracker.observe(row("a", "9", "1.0"));
+        tracker.observe(row("b", "10", "2.0"));
+        tracker.observe(row("c", null, "3.0"));
+        tracker.observe(row("d", "2", "4.0"));
+
+        var watermark = tracker.getWatermark();
+        assertThat(watermark).isNotNull();
+        assertThat(watermark.toParameter()).isEqualTo(QueryParameterValue.int64(10L));
+    }
+
+    @Test
+    void getWatermark_keepsTimestampsAsMicroseconds() {
+        var tracker = new WatermarkTracker(FIELDS, "ingested_at");
+
+        tracker.observe(row("a", "1", "1700000000.5"));
+
+        var watermark = tracker.getWatermark();
+        assertThat(watermark).isNotNull();
+        assertThat(watermark.toParameter()).isEqualTo(QueryParameterValue.timestamp(1700000000500000L));
+    }
+
+    @Test
+    void getWatermark_returnsNullWithoutValues() {
+        var tracker = new WatermarkTracker(FIELDS, "id");
+
+        tracker.observe(row("a", null, "1.0"));
+
+        assertThat(tracker.getWatermark()).isNull();
+    }
+
+    @Test
+    void create_failsForMissingOrUnorderedColumn() {
+        assertThatThrownBy(() -> new WatermarkTracker(FIELDS, "missing")).isInstanceOf(EdcException.class);
+        assertThatThrownBy(() -> new WatermarkTracker(FIELDS, "tags")).isInstanceOf(EdcException.class);
+    }
+
+    private static FieldValueList row(String name, String id, String ingestedAt) {
+        return FieldValueList.of(List.of(
+                FieldValue.of(FieldValue.Attribute.PRIMITIVE, name),
+                FieldValue.of(FieldValue.Attribute.PRIMITIVE, id),
+                FieldValue.of(FieldValue.Attribute.PRIMITIVE, ingestedAt),
+                FieldValue.of(FieldValue.Attribute.PRIMITIVE, null)), FIELDS);
+    }
+}
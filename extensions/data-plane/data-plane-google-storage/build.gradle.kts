@@ -23,6 +23,8 @@ dependencies {
     implementation(libs.edc.core.dataplane.util)
 
     implementation(libs.googlecloud.storage)
+    implementation(libs.googlecloud.storage.transfer)
+    implementation(libs.avro)
 
     testImplementation(libs.edc.core.dataplane)
     testImplementation(libs.edc.junit)
@@ -14,23 +14,110 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
+import com.google.storagetransfer.v1.proto.StorageTransferServiceClient;
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.GoogleStorageTransferClient;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataTransferExecutorServiceContainer;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.PipelineService;
+import org.eclipse.edc.connector.dataplane.spi.registry.TransferServiceRegistry;
+import org.eclipse.edc.gcp.common.GcpConfiguration;
+import org.eclipse.edc.gcp.common.GcpException;
+import org.eclipse.edc.gcp.iam.IamService;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Extension(value = DataPlaneGcsExtension.NAME)
 public class DataPlaneGcsExtension implements ServiceExtension {
 
     public static final String NAME = "Data Plane Google Cloud Storage";
+    public static final long DEFAULT_TRANSFER_SERVICE_POLL_INTERVAL_MS = 10000;
+    private static final long BRANCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    @Setting(value = "Parts up to this size in bytes are uploaded with a single request instead of a resumable upload session", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_SINGLE_UPLOAD_THRESHOLD, required = false)
+    public static final String SINK_SINGLE_UPLOAD_THRESHOLD = "edc.gcp.storage.sink.single.upload.threshold";
+
+    @Setting(value = "Maximum number of uploads a sink keeps in flight for one partition of parts", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_MAX_CONCURRENT_UPLOADS, required = false)
+    public static final String SINK_MAX_CONCURRENT_UPLOADS = "edc.gcp.storage.sink.max.concurrent.uploads";
+
+    @Setting(value = "Number of threads all sinks of the connector upload parts with", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_UPLOAD_THREADS, required = false)
+    public static final String SINK_UPLOAD_THREADS = "edc.gcp.storage.sink.upload.threads";
+
+    @Setting(value = "Maximum number of destination buckets a sink writes every part to", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_MAX_BUCKETS, required = false)
+    public static final String SINK_MAX_BUCKETS = "edc.gcp.storage.sink.max.buckets";
+
+    @Setting(value = "Number of concurrent writes per bucket the adaptive limiter starts with", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_LIMITER_INITIAL_LIMIT, required = false)
+    public static final String SINK_LIMITER_INITIAL_LIMIT = "edc.gcp.storage.sink.limiter.initial";
+
+    @Setting(value = "Number of concurrent writes per bucket the adaptive limiter never grows beyond", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_LIMITER_MAX_LIMIT, required = false)
+    public static final String SINK_LIMITER_MAX_LIMIT = "edc.gcp.storage.sink.limiter.max";
+
+    @Setting(value = "Latency in milliseconds up to which a completed write lets the adaptive limiter grow", type = "long",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_LIMITER_LATENCY_THRESHOLD_MS, required = false)
+    public static final String SINK_LIMITER_LATENCY_THRESHOLD = "edc.gcp.storage.sink.limiter.latency.ms";
+
+    @Setting(value = "Number of times a throttled write is retried", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_MAX_RETRIES, required = false)
+    public static final String SINK_MAX_RETRIES = "edc.gcp.storage.sink.retries.max";
+
+    @Setting(value = "Number of write requests per second and bucket the rate limiter starts with", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_RATE_INITIAL, required = false)
+    public static final String SINK_RATE_INITIAL = "edc.gcp.storage.sink.rate.initial";
+
+    @Setting(value = "Number of write requests per second and bucket the rate limiter never ramps up beyond", type = "int",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_RATE_MAX, required = false)
+    public static final String SINK_RATE_MAX = "edc.gcp.storage.sink.rate.max";
+
+    @Setting(value = "Time in milliseconds of busy use without throttling after which the rate limiter doubles the request rate", type = "long",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_RATE_RAMP_INTERVAL_MS, required = false)
+    public static final String SINK_RATE_RAMP_INTERVAL = "edc.gcp.storage.sink.rate.ramp.interval.ms";
+
+    @Setting(value = "Local directory sinks spool parts to before uploading them, defaults to a directory in java.io.tmpdir", required = false)
+    public static final String SINK_SPOOL_DIRECTORY = "edc.gcp.storage.sink.spool.directory";
+
+    @Setting(value = "Disk space in bytes all spool files of the connector may take together", type = "long",
+            defaultValue = "" + GcsSinkConfiguration.DEFAULT_SPOOL_CAPACITY, required = false)
+    public static final String SINK_SPOOL_CAPACITY = "edc.gcp.storage.sink.spool.capacity";
+
+    @Setting(value = "Registers a transfer service that hands bucket to bucket copies asking for it over to the Storage Transfer Service", type = "boolean",
+            defaultValue = "false", required = false)
+    public static final String TRANSFER_SERVICE_ENABLED = "edc.gcp.storage.transfer.service.enabled";
+
+    @Setting(value = "Interval in milliseconds in which the progress of storage transfer operations is polled", type = "long",
+            defaultValue = "" + DEFAULT_TRANSFER_SERVICE_POLL_INTERVAL_MS, required = false)
+    public static final String TRANSFER_SERVICE_POLL_INTERVAL = "edc.gcp.storage.transfer.service.poll.interval.ms";
 
     @Inject
     PipelineService pipelineService;
 
+    @Inject
+    private TransferServiceRegistry transferServiceRegistry;
+
+    @Inject
+    private GcpConfiguration gcpConfiguration;
+
+    @Inject
+    private IamService iamService;
+
     @Inject
     private Vault vault;
 
@@ -40,6 +127,11 @@ public class DataPlaneGcsExtension implements ServiceExtension {
     @Inject
     private DataTransferExecutorServiceContainer executorContainer;
 
+    private ExecutorService uploadExecutorService;
+    private ExecutorService branchExecutorService;
+    private ScheduledExecutorService transferPollingExecutorService;
+    private GoogleStorageTransferClient storageTransferClient;
+
     @Override
     public String name() {
         return NAME;
@@ -53,7 +145,67 @@ public class DataPlaneGcsExtension implements ServiceExtension {
         var sourceFactory = new GcsDataSourceFactory(monitor);
         pipelineService.registerFactory(sourceFactory);
 
-        var sinkFactory = new GcsDataSinkFactory(executorContainer.getExecutorService(), monitor, vault, typeManager);
+        var sinkConfiguration = GcsSinkConfiguration.Builder.newInstance()
+                .singleUploadThreshold(context.getSetting(SINK_SINGLE_UPLOAD_THRESHOLD, GcsSinkConfiguration.DEFAULT_SINGLE_UPLOAD_THRESHOLD))
+                .maxConcurrentUploads(context.getSetting(SINK_MAX_CONCURRENT_UPLOADS, GcsSinkConfiguration.DEFAULT_MAX_CONCURRENT_UPLOADS))
+                .uploadThreads(context.getSetting(SINK_UPLOAD_THREADS, GcsSinkConfiguration.DEFAULT_UPLOAD_THREADS))
+                .maxBuckets(context.getSetting(SINK_MAX_BUCKETS, GcsSinkConfiguration.DEFAULT_MAX_BUCKETS))
+                .limiterInitialLimit(context.getSetting(SINK_LIMITER_INITIAL_LIMIT, GcsSinkConfiguration.DEFAULT_LIMITER_INITIAL_LIMIT))
+                .limiterMaxLimit(context.getSetting(SINK_LIMITER_MAX_LIMIT, GcsSinkConfiguration.DEFAULT_LIMITER_MAX_LIMIT))
+                .limiterLatencyThreshold(Duration.ofMillis(context.getSetting(SINK_LIMITER_LATENCY_THRESHOLD, GcsSinkConfiguration.DEFAULT_LIMITER_LATENCY_THRESHOLD_MS)))
+                .maxRetries(context.getSetting(SINK_MAX_RETRIES, GcsSinkConfiguration.DEFAULT_MAX_RETRIES))
+                .rateInitial(context.getSetting(SINK_RATE_INITIAL, GcsSinkConfiguration.DEFAULT_RATE_INITIAL))
+                .rateMax(context.getSetting(SINK_RATE_MAX, GcsSinkConfiguration.DEFAULT_RATE_MAX))
+                .rateRampInterval(Duration.ofMillis(context.getSetting(SINK_RATE_RAMP_INTERVAL, GcsSinkConfiguration.DEFAULT_RATE_RAMP_INTERVAL_MS)))
+                .spoolDirectory(Path.of(context.getSetting(SINK_SPOOL_DIRECTORY, GcsSinkConfiguration.DEFAULT_SPOOL_DIRECTORY)))
+                .spoolCapacity(context.getSetting(SINK_SPOOL_CAPACITY, GcsSinkConfiguration.DEFAULT_SPOOL_CAPACITY))
+                .build();
+        // uploads run on their own bounded pool, waiting for them on the transfer executor could otherwise exhaust it.
+        // Uploads of fanned-out and spooled parts wait for one branch per bucket, which run on a pool of their own so
+        // that they never queue behind the uploads waiting for them. Destinations are validated against the maximum
+        // number of buckets, so every upload thread waits for at most that many branches. A branch is never queued, a
+        // queued fan-out branch would block its writer, and is rejected and failed once the pool is exhausted.
+        uploadExecutorService = Executors.newFixedThreadPool(sinkConfiguration.getUploadThreads());
+        branchExecutorService = new ThreadPoolExecutor(0, sinkConfiguration.getUploadThreads() * sinkConfiguration.getMaxBuckets(),
+                BRANCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        var sinkFactory = new GcsDataSinkFactory(executorContainer.getExecutorService(), uploadExecutorService, branchExecutorService,
+                monitor, vault, typeManager, iamService, sinkConfiguration);
         pipelineService.registerFactory(sinkFactory);
+
+        if (context.getSetting(TRANSFER_SERVICE_ENABLED, false)) {
+            registerStorageTransferService(context);
+        }
+    }
+
+    /**
+     * The client authenticates with the application default credentials, the transfer itself runs as the transfer
+     * service agent of the project.
+     */
+    private void registerStorageTransferService(ServiceExtensionContext context) {
+        try {
+            storageTransferClient = new GoogleStorageTransferClient(StorageTransferServiceClient.create());
+        } catch (IOException e) {
+            throw new GcpException("Error creating the storage transfer client", e);
+        }
+        transferPollingExecutorService = Executors.newSingleThreadScheduledExecutor();
+        var pollInterval = Duration.ofMillis(context.getSetting(TRANSFER_SERVICE_POLL_INTERVAL, DEFAULT_TRANSFER_SERVICE_POLL_INTERVAL_MS));
+        transferServiceRegistry.registerTransferService(new GcsStorageTransferService(storageTransferClient, transferPollingExecutorService,
+                pollInterval, gcpConfiguration.getProjectId(), context.getMonitor()));
+    }
+
+    @Override
+    public void shutdown() {
+        if (uploadExecutorService != null) {
+            uploadExecutorService.shutdownNow();
+        }
+        if (branchExecutorService != null) {
+            branchExecutorService.shutdownNow();
+        }
+        if (transferPollingExecutorService != null) {
+            transferPollingExecutorService.shutdownNow();
+        }
+        if (storageTransferClient != null) {
+            storageTransferClient.close();
+        }
     }
 }
@@ -14,53 +14,996 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
 import com.google.common.io.ByteStreams;
+import org.apache.avro.Schema;
+import org.eclipse.edc.connector.dataplane.gcp.storage.checksum.BlobChecksum;
+import org.eclipse.edc.connector.dataplane.gcp.storage.checksum.ChecksumOutputStream;
+import org.eclipse.edc.connector.dataplane.gcp.storage.checksum.ChecksummedPart;
+import org.eclipse.edc.connector.dataplane.gcp.storage.fanout.FanOutOutputStream;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.AdaptiveConcurrencyLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.RequestRateLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.naming.BlobNameStrategy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.FileNameTemplate;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollPolicy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingAvroWriter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingFormat;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingTextWriter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingWriter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RowSchemaConverter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.spool.DiskSpool;
+import org.eclipse.edc.connector.dataplane.gcp.storage.spool.SpoolFile;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult;
 import org.eclipse.edc.connector.dataplane.util.sink.ParallelSink;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.channels.Channels;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 public class GcsDataSink extends ParallelSink {
+    public static final long DEFAULT_TARGET_FILE_SIZE = 128L * 1024 * 1024;
+    public static final int DEFAULT_ROW_GROUP_SIZE = 1024 * 1024;
+    public static final String DEFAULT_CONTENT_PREFIX = "content/";
+    public static final String POINTER_METADATA_KEY = "edc-content-object";
+    public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int UPLOAD_CHUNK_GRANULARITY = 256 * 1024;
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+    private static final Duration DEFAULT_RETRY_BASE_DELAY = Duration.ofMillis(500);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(32);
+    private static final String GZIP_CONTENT_ENCODING = "gzip";
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+    private static final String MANIFEST_CONTENT_TYPE = "application/json";
+    private static final int FAN_OUT_CHUNK_SIZE = 256 * 1024;
+    private static final int FAN_OUT_QUEUE_CAPACITY = 16;
+    private static final String SCHEMA_PART_NAME = "schema";
+    private static final String POINTER_CONTENT_TYPE = "text/plain";
+    private static final String INCOMING_PREFIX = "incoming/";
+    private static final String GZIP_SUFFIX = ".gz";
+
     private Storage storageClient;
-    private String bucketName;
+    private List<String> bucketNames;
     private String blobName;
+    private int singleUploadThreshold = GcsSinkConfiguration.DEFAULT_SINGLE_UPLOAD_THRESHOLD;
+    private int maxConcurrentUploads = GcsSinkConfiguration.DEFAULT_MAX_CONCURRENT_UPLOADS;
+    private ExecutorService uploadExecutorService;
+    private ExecutorService branchExecutorService;
+    private Function<String, AdaptiveConcurrencyLimiter> concurrencyLimiters;
+    private Function<String, RequestRateLimiter> rateLimiters;
+    private int maxRetries = GcsSinkConfiguration.DEFAULT_MAX_RETRIES;
+    private Duration retryBaseDelay = DEFAULT_RETRY_BASE_DELAY;
+    private int uploadChunkSize = DEFAULT_UPLOAD_CHUNK_SIZE;
+    private boolean gzipCompression;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private BlobNameStrategy blobNameStrategy = BlobNameStrategy.IDENTITY;
+    private String manifestName;
+    private ObjectMapper objectMapper;
+    private boolean md5Checksum;
+    private RollingFormat rollingFormat;
+    private FileNameTemplate fileNameTemplate;
+    private long targetFileSize = DEFAULT_TARGET_FILE_SIZE;
+    private long maxFileRows = Long.MAX_VALUE;
+    private Duration maxFileAge;
+    private int rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+    private Clock clock = Clock.systemUTC();
+    private DiskSpool diskSpool;
+    private boolean skipIdentical;
+    private boolean contentAddressed;
+    private String contentPrefix = DEFAULT_CONTENT_PREFIX;
+    private final Object rollingWriterLock = new Object();
+    private Schema rowSchema;
+    private final List<byte[]> pendingRowParts = new ArrayList<>();
+    private long pendingRowBytes;
+    private RollingWriter rollingWriter;
+    private final Map<String, String> physicalNames = new ConcurrentHashMap<>();
+    private final Queue<BlobChecksum> checksums = new ConcurrentLinkedQueue<>();
+    // destination buckets dropped from the rolling files after a failed write, with the error
+    private final Map<String, String> failedRollingBuckets = new ConcurrentHashMap<>();
 
     private GcsDataSink() {}
 
     /**
-     * Writes data into an Google storage.
+     * Writes data into an Google storage. The parts of a partition are uploaded concurrently, bounded by the maximum
+     * number of concurrent uploads, and the results of all uploads are reported as one result.
      */
     @Override
     protected StreamResult<Object> transferParts(List<DataSource.Part> parts) {
+        if (rollingFormat != null) {
+            return transferRows(parts);
+        }
+        var inFlight = new Semaphore(maxConcurrentUploads);
+        var uploads = new ArrayList<CompletableFuture<StreamResult<Object>>>();
+        try {
+            for (DataSource.Part part : parts) {
+                inFlight.acquire();
+                uploads.add(CompletableFuture.supplyAsync(() -> transferPart(part), uploadExecutorService)
+                        .whenComplete((result, throwable) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            uploads.forEach(upload -> upload.cancel(true));
+            return StreamResult.error("Interrupted while uploading parts to " + String.join(", ", bucketNames));
+        }
 
-        for (DataSource.Part part : parts) {
+        var failures = uploads.stream()
+                .map(CompletableFuture::join)
+                .filter(StreamResult::failed)
+                .map(StreamResult::getFailureDetail)
+                .collect(Collectors.toList());
+        if (!failures.isEmpty()) {
+            return StreamResult.error(String.format("Failed to upload %d of %d parts: %s", failures.size(), parts.size(), String.join(", ", failures)));
+        }
+        return StreamResult.success();
+    }
+
+    /**
+     * Appends the rows of a tabular source to rolling files instead of writing one blob per part. The schema part comes
+     * first in the stream, for formats that need it rows of partitions running ahead of it are held in memory until it
+     * arrives instead of blocking a worker, up to the row group size. A row part may hold a single row or a chunk of
+     * NDJSON rows.
+     */
+    private StreamResult<Object> transferRows(List<DataSource.Part> parts) {
+        var converter = new RowSchemaConverter(objectMapper);
+        for (var part : parts) {
             try (var input = part.openStream()) {
-                var sinkBlobName = Optional.ofNullable(blobName)
-                        .orElseGet(part::name);
-                var destinationBlobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, sinkBlobName)).build();
-                try (var writer = storageClient.writer(destinationBlobInfo, Storage.BlobWriteOption.doesNotExist())) {
-                    ByteStreams.copy(input, Channels.newOutputStream(writer));
+                if (SCHEMA_PART_NAME.equals(part.name())) {
+                    var schema = converter.readSchema(input);
+                    synchronized (rollingWriterLock) {
+                        rowSchema = schema;
+                        for (var pending : pendingRowParts) {
+                            appendRows(converter, converter.readRows(new ByteArrayInputStream(pending)));
+                        }
+                        pendingRowParts.clear();
+                        pendingRowBytes = 0;
+                    }
+                    continue;
+                }
+                synchronized (rollingWriterLock) {
+                    if (rollingFormat.isSchemaRequired() && rowSchema == null) {
+                        holdRows(input);
+                    } else {
+                        appendRows(converter, converter.readRows(input));
+                    }
                 }
-            } catch (IOException e) {
-                monitor.severe("Cannot open the input part", e);
-                monitor.severe(e.toString());
-                return StreamResult.error("An error");
             } catch (Exception e) {
-                monitor.severe("Error writing data to the bucket", e);
-                return StreamResult.error("An error");
+                monitor.severe("Error writing rows to " + String.join(", ", bucketNames), e);
+                return StreamResult.error("Error writing row " + part.name() + ": " + e.getMessage());
             }
         }
         return StreamResult.success();
     }
 
+    /**
+     * Keeps the content of a row part until the schema arrives, all held parts together may not exceed the row group
+     * size.
+     */
+    private void holdRows(InputStream input) throws IOException {
+        var remaining = rowGroupSize - pendingRowBytes;
+        var content = input.readNBytes((int) remaining + 1);
+        if (content.length > remaining) {
+            throw new IOException(String.format("Rows received before the schema part exceed the row group size of %d bytes, the source must send the schema part first",
+                    rowGroupSize));
+        }
+        pendingRowParts.add(content);
+        pendingRowBytes += content.length;
+    }
+
+    private void appendRows(RowSchemaConverter converter, Iterator<JsonNode> rows) throws IOException {
+        if (rollingWriter == null) {
+            rollingWriter = createRollingWriter(converter, rowSchema);
+        }
+        while (rows.hasNext()) {
+            rollingWriter.append(rows.next());
+        }
+    }
+
+    private RollingWriter createRollingWriter(RowSchemaConverter converter, Schema schema) {
+        var rollPolicy = new RollPolicy(targetFileSize, maxFileRows, maxFileAge);
+        return switch (rollingFormat) {
+            case AVRO -> new RollingAvroWriter(schema, converter, this::openRollingFile, rollPolicy, rowGroupSize, clock);
+            case CSV -> new RollingTextWriter(converter.csvHeader(schema), row -> converter.toCsvLine(schema, row),
+                    this::openRollingFile, rollPolicy, clock);
+            case NDJSON -> new RollingTextWriter(null, converter::toJsonLine, this::openRollingFile, rollPolicy, clock);
+        };
+    }
+
+    /**
+     * Opens the next rolling file in every destination bucket that did not fail yet. The file is uploaded in chunks
+     * within the limits of each bucket and its checksums are verified and reported once it is finished.
+     */
+    private OutputStream openRollingFile(int sequence) throws IOException {
+        var logicalName = fileNameTemplate.fileName(Optional.ofNullable(blobName).orElse(requestId), sequence);
+        var sinkBlobName = blobNameStrategy.physicalName(logicalName);
+        physicalNames.put(logicalName, sinkBlobName);
+        var blobInfos = bucketNames.stream()
+                .filter(bucketName -> !failedRollingBuckets.containsKey(bucketName))
+                .map(bucketName -> contentBlobInfo(BlobId.of(bucketName, sinkBlobName)).toBuilder()
+                        .setContentType(rollingFormat.getContentType())
+                        .build())
+                .collect(Collectors.toList());
+        return encode(new RollingFileOutputStream(sinkBlobName, blobInfos));
+    }
+
+    /**
+     * Finishes the last rolling file and writes the manifest mapping the logical name of every transferred part to the
+     * name of its blob, if requested. The result carries the checksums of all uploaded blobs.
+     */
+    @Override
+    protected StreamResult<Object> complete() {
+        synchronized (rollingWriterLock) {
+            if (!pendingRowParts.isEmpty()) {
+                return StreamResult.error(String.format("No schema part received for %d row parts", pendingRowParts.size()));
+            }
+            if (rollingWriter != null) {
+                try {
+                    rollingWriter.close();
+                } catch (IOException e) {
+                    monitor.severe("Error finishing rolling file in bucket " + bucketNames.get(0), e);
+                    return StreamResult.error("Error finishing rolling file: " + e.getMessage());
+                }
+            }
+        }
+        var failures = new ArrayList<String>();
+        if (!failedRollingBuckets.isEmpty()) {
+            failures.add(String.format("Failed to write rolling files to %d of %d buckets: %s", failedRollingBuckets.size(), bucketNames.size(),
+                    failedRollingBuckets.entrySet().stream()
+                            .map(failure -> failure.getKey() + ": " + failure.getValue())
+                            .collect(Collectors.joining(", "))));
+        }
+        if (manifestName == null) {
+            return failures.isEmpty() ? StreamResult.success(List.copyOf(checksums)) : StreamResult.error(String.join(", ", failures));
+        }
+        byte[] manifest;
+        try {
+            manifest = objectMapper.writeValueAsBytes(new TreeMap<>(physicalNames));
+        } catch (JsonProcessingException e) {
+            return StreamResult.error("Error serializing manifest " + manifestName + ": " + e.getMessage());
+        }
+        for (var bucketName : bucketNames) {
+            if (failedRollingBuckets.containsKey(bucketName)) {
+                // the bucket misses rolling files the manifest names
+                continue;
+            }
+            var blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, manifestName))
+                    .setContentType(MANIFEST_CONTENT_TYPE)
+                    .build();
+            try {
+                var existing = existingBlob(blobInfo);
+                if (existing != null) {
+                    var crc32c = new ChecksumOutputStream(OutputStream.nullOutputStream(), false);
+                    crc32c.write(manifest);
+                    if (isIdentical(existing, manifest.length, crc32c.getCrc32c())) {
+                        continue;
+                    }
+                }
+                var precondition = existing != null ? Storage.BlobTargetOption.generationMatch(existing.getGeneration()) : Storage.BlobTargetOption.doesNotExist();
+                write(blobInfo, true, () -> storageClient.create(blobInfo, manifest, precondition));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return StreamResult.error("Interrupted while writing manifest " + manifestName);
+            } catch (Exception e) {
+                monitor.severe("Error writing manifest to the bucket " + bucketName, e);
+                failures.add("Error writing manifest " + manifestName + " to bucket " + bucketName + ": " + e.getMessage());
+            }
+        }
+        return failures.isEmpty() ? StreamResult.success(List.copyOf(checksums)) : StreamResult.error(String.join(", ", failures));
+    }
+
+    private StreamResult<Object> transferPart(DataSource.Part part) {
+        var logicalName = Optional.ofNullable(blobName)
+                .orElseGet(part::name);
+        var sinkBlobName = blobNameStrategy.physicalName(logicalName);
+        physicalNames.put(logicalName, sinkBlobName);
+        try {
+            // size and checksum may cost the source a metadata request, uploads tell small parts apart without them
+            var size = diskSpool != null || skipIdentical ? part.size() : DataSource.Part.SIZE_UNKNOWN;
+            if (diskSpool != null && (size == DataSource.Part.SIZE_UNKNOWN || diskSpool.hasCapacity(size))) {
+                return transferSpooled(part, sinkBlobName);
+            }
+            // the checksum known by the source describes the content before compression
+            var knownCrc32c = skipIdentical && !gzipCompression && part instanceof ChecksummedPart checksummedPart ? checksummedPart.crc32c() : null;
+            if (bucketNames.size() == 1) {
+                return uploadTo(bucketNames.get(0), sinkBlobName, part.openStream(), size, knownCrc32c, null);
+            }
+            return fanOut(part, sinkBlobName, size, knownCrc32c);
+        } catch (Exception e) {
+            monitor.severe("Error reading part " + part.name(), e);
+            return StreamResult.error("Error reading part " + part.name() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the part to a local spool file first, so a slow source does not keep an upload session open, then uploads
+     * it from disk to every destination bucket. The spool file is deleted afterwards, whether the uploads succeeded or
+     * not.
+     */
+    private StreamResult<Object> transferSpooled(DataSource.Part part, String sinkBlobName) {
+        try (var spoolFile = diskSpool.spool(part.openStream())) {
+            // reading the local file once more is cheap, the checksum lets GCS validate the upload and identical blobs
+            // be skipped
+            var crc32c = encodedCrc32c(spoolFile);
+            var contentHash = contentAddressed ? contentHash(spoolFile) : null;
+            var uploads = bucketNames.stream()
+                    .map(bucketName -> branch(bucketName, () -> uploadFromSpool(bucketName, sinkBlobName, spoolFile, crc32c, contentHash), null))
+                    .collect(Collectors.toList());
+            var failures = uploads.stream()
+                    .map(CompletableFuture::join)
+                    .filter(StreamResult::failed)
+                    .map(StreamResult::getFailureDetail)
+                    .collect(Collectors.toList());
+            if (!failures.isEmpty()) {
+                return StreamResult.error(String.format("Failed to write %s to %d of %d buckets: %s",
+                        sinkBlobName, failures.size(), bucketNames.size(), String.join(", ", failures)));
+            }
+            return StreamResult.success();
+        } catch (Exception e) {
+            monitor.severe("Error spooling part " + part.name(), e);
+            return StreamResult.error("Error spooling part " + part.name() + ": " + e.getMessage());
+        }
+    }
+
+    private StreamResult<Object> uploadFromSpool(String bucketName, String sinkBlobName, SpoolFile spoolFile, String crc32c, String contentHash) {
+        try {
+            return uploadTo(bucketName, sinkBlobName, spoolFile.openStream(), spoolFile.size(), crc32c, contentHash);
+        } catch (IOException e) {
+            monitor.severe("Error reading spool file of blob " + sinkBlobName, e);
+            return StreamResult.error("Error reading spool file of blob " + sinkBlobName + ": " + e.getMessage());
+        }
+    }
+
+    private String encodedCrc32c(SpoolFile spoolFile) throws IOException {
+        var checksumOutput = new ChecksumOutputStream(OutputStream.nullOutputStream(), false);
+        try (var input = spoolFile.openStream(); var output = encode(checksumOutput)) {
+            ByteStreams.copy(input, output);
+        }
+        return checksumOutput.getCrc32c();
+    }
+
+    private String contentHash(SpoolFile spoolFile) throws IOException {
+        try (var input = new HashingInputStream(Hashing.sha256(), spoolFile.openStream())) {
+            ByteStreams.exhaust(input);
+            return input.hash().toString();
+        }
+    }
+
+    /**
+     * Reads the part once and writes it to all destination buckets concurrently. Every destination consumes the same
+     * buffers through its own branch of the stream, a failing destination does not affect the others.
+     */
+    private StreamResult<Object> fanOut(DataSource.Part part, String sinkBlobName, long size, String knownCrc32c) {
+        var fanOut = new FanOutOutputStream(FAN_OUT_CHUNK_SIZE, FAN_OUT_QUEUE_CAPACITY, bucketNames.size());
+        var uploads = new ArrayList<CompletableFuture<StreamResult<Object>>>();
+        for (var i = 0; i < bucketNames.size(); i++) {
+            var bucketName = bucketNames.get(i);
+            var branch = fanOut.branch(i);
+            uploads.add(branch(bucketName, () -> uploadTo(bucketName, sinkBlobName, branch, size, knownCrc32c, null), branch));
+        }
+
+        try (var input = part.openStream()) {
+            ByteStreams.copy(input, fanOut);
+            fanOut.close();
+        } catch (Exception e) {
+            fanOut.abort(e);
+            monitor.severe("Error reading part " + part.name(), e);
+        }
+
+        var failures = uploads.stream()
+                .map(CompletableFuture::join)
+                .filter(StreamResult::failed)
+                .map(StreamResult::getFailureDetail)
+                .collect(Collectors.toList());
+        if (!failures.isEmpty()) {
+            return StreamResult.error(String.format("Failed to write %s to %d of %d buckets: %s",
+                    sinkBlobName, failures.size(), bucketNames.size(), String.join(", ", failures)));
+        }
+        return StreamResult.success();
+    }
+
+    /**
+     * Runs the upload to one bucket on the branch pool. A branch rejected by the exhausted pool fails its destination
+     * only, its input, if any, is closed so that a fan-out does not wait for it.
+     */
+    private CompletableFuture<StreamResult<Object>> branch(String bucketName, Supplier<StreamResult<Object>> upload, InputStream input) {
+        try {
+            return CompletableFuture.supplyAsync(upload, branchExecutorService);
+        } catch (RejectedExecutionException e) {
+            monitor.severe("No thread available to write to bucket " + bucketName, e);
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            return CompletableFuture.completedFuture(StreamResult.error("No thread available to write to bucket " + bucketName));
+        }
+    }
+
+    /**
+     * Uploads the input to one bucket and closes it, which drops the branch of a failed destination from a fan-out.
+     */
+    private StreamResult<Object> uploadTo(String bucketName, String sinkBlobName, InputStream input, long size, String knownCrc32c, String contentHash) {
+        try (input) {
+            var checksum = contentAddressed
+                    ? uploadDeduplicated(bucketName, sinkBlobName, input, size, contentHash, knownCrc32c)
+                    : upload(contentBlobInfo(BlobId.of(bucketName, sinkBlobName)), input, size, knownCrc32c);
+            if (checksum != null) {
+                checksums.add(checksum);
+                monitor.debug("Uploaded " + checksum);
+            }
+            return StreamResult.success(checksum);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return StreamResult.error("Interrupted while writing blob " + sinkBlobName);
+        } catch (Exception e) {
+            monitor.severe("Error writing data to the bucket " + bucketName, e);
+            return StreamResult.error("Error writing blob " + sinkBlobName + " to bucket " + bucketName + ": " + e.getMessage());
+        }
+    }
+
+    private BlobInfo contentBlobInfo(BlobId blobId) {
+        var blobInfoBuilder = BlobInfo.newBuilder(blobId);
+        if (gzipCompression) {
+            // lets GCS serve the object decompressed through decompressive transcoding
+            blobInfoBuilder.setContentEncoding(GZIP_CONTENT_ENCODING);
+        }
+        return blobInfoBuilder.build();
+    }
+
+    /**
+     * Stores the content once under a name derived from its SHA-256 hash and writes a pointer object naming it under
+     * the blob name. Content that is stored already is not uploaded again. Parts up to the single upload threshold and
+     * spooled parts are hashed before uploading, larger streamed parts are hashed while they are uploaded to a
+     * temporary object, which is then copied to its content name within the bucket.
+     *
+     * @return the checksum of newly stored content, null if the content was stored already.
+     */
+    private BlobChecksum uploadDeduplicated(String bucketName, String sinkBlobName, InputStream input, long size, String contentHash,
+                                            String knownCrc32c) throws IOException, InterruptedException {
+        var content = input;
+        var contentSize = size;
+        var hash = contentHash;
+        if (hash == null && size <= singleUploadThreshold) {
+            var head = input.readNBytes(singleUploadThreshold + 1);
+            if (head.length <= singleUploadThreshold) {
+                hash = Hashing.sha256().hashBytes(head).toString();
+                contentSize = head.length;
+            }
+            content = new SequenceInputStream(new ByteArrayInputStream(head), input);
+        }
+
+        BlobChecksum checksum = null;
+        String contentName;
+        if (hash != null) {
+            contentName = contentName(hash);
+            if (!exists(BlobId.of(bucketName, contentName))) {
+                checksum = uploadContent(contentBlobInfo(BlobId.of(bucketName, contentName)), content, contentSize, knownCrc32c);
+            }
+        } else {
+            var incoming = BlobId.of(bucketName, contentPrefix + INCOMING_PREFIX + UUID.randomUUID());
+            try {
+                var hashingInput = new HashingInputStream(Hashing.sha256(), content);
+                var incomingChecksum = upload(contentBlobInfo(incoming), hashingInput, contentSize, null);
+                contentName = contentName(hashingInput.hash().toString());
+                if (!exists(BlobId.of(bucketName, contentName))) {
+                    checksum = copyContent(incoming, contentBlobInfo(BlobId.of(bucketName, contentName)), incomingChecksum);
+                }
+            } catch (Exception e) {
+                deleteIncoming(incoming, e);
+                throw e;
+            }
+            deleteIncoming(incoming, null);
+        }
+        writePointer(BlobId.of(bucketName, sinkBlobName), contentName);
+        return checksum;
+    }
+
+    /**
+     * Deletes the temporary object of a streamed part. A failure to do so is only logged, it neither fails a stored part
+     * nor masks the error of a failed one, to which it is added as suppressed.
+     */
+    private void deleteIncoming(BlobId incoming, Exception failure) {
+        try {
+            storageClient.delete(incoming);
+        } catch (RuntimeException e) {
+            monitor.warning("Error deleting temporary object " + incoming, e);
+            if (failure != null) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private String contentName(String hash) {
+        return contentPrefix + hash + (gzipCompression ? GZIP_SUFFIX : "");
+    }
+
+    private boolean exists(BlobId blobId) {
+        return storageClient.get(blobId, Storage.BlobGetOption.fields(Storage.BlobField.NAME)) != null;
+    }
+
+    /**
+     * Another transfer storing the same content concurrently makes the upload fail its precondition, which is fine.
+     */
+    private BlobChecksum uploadContent(BlobInfo blobInfo, InputStream input, long size, String knownCrc32c) throws IOException, InterruptedException {
+        try {
+            return upload(blobInfo, input, size, knownCrc32c);
+        } catch (IOException | RuntimeException e) {
+            if (statusCode(e) == HTTP_PRECONDITION_FAILED) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private BlobChecksum copyContent(BlobId source, BlobInfo target, BlobChecksum sourceChecksum) throws IOException, InterruptedException {
+        var copyRequest = Storage.CopyRequest.newBuilder()
+                .setSource(source)
+                .setTarget(target, Storage.BlobTargetOption.doesNotExist())
+                .build();
+        try {
+            // copies within a bucket are usually completed by GCS in a single request without moving the data
+            write(target, true, () -> storageClient.copy(copyRequest).getResult());
+        } catch (IOException | RuntimeException e) {
+            if (statusCode(e) == HTTP_PRECONDITION_FAILED) {
+                return null;
+            }
+            throw e;
+        }
+        return new BlobChecksum(target.getBucket(), target.getName(), sourceChecksum.getCrc32c(), sourceChecksum.getMd5());
+    }
+
+    /**
+     * Pointer objects are tiny blobs under the logical name whose content and metadata name the content object. An
+     * identical pointer is kept, a differing one is replaced by the generation it was read with.
+     */
+    private void writePointer(BlobId blobId, String contentName) throws IOException, InterruptedException {
+        // looked up even without skipping identical blobs, so that reruns do not fail on their own pointers
+        var existing = storageClient.get(blobId, Storage.BlobGetOption.fields(Storage.BlobField.GENERATION, Storage.BlobField.METADATA));
+        if (existing != null && existing.getMetadata() != null && contentName.equals(existing.getMetadata().get(POINTER_METADATA_KEY))) {
+            return;
+        }
+        var pointerInfo = BlobInfo.newBuilder(blobId)
+                .setContentType(POINTER_CONTENT_TYPE)
+                .setMetadata(Map.of(POINTER_METADATA_KEY, contentName))
+                .build();
+        var precondition = existing != null ? Storage.BlobTargetOption.generationMatch(existing.getGeneration()) : Storage.BlobTargetOption.doesNotExist();
+        var pointer = contentName.getBytes(StandardCharsets.UTF_8);
+        write(pointerInfo, true, () -> storageClient.create(pointerInfo, pointer, precondition));
+    }
+
+    /**
+     * Uploads parts up to the single upload threshold with one request, larger parts or parts whose size exceeds the
+     * threshold while reading go through a resumable upload session. Checksums are computed over the uploaded bytes.
+     * When skipping identical blobs, an existing blob is kept if the known checksum of the content or, for small parts,
+     * the checksum computed before uploading matches it, otherwise it is replaced if it was not changed meanwhile.
+     */
+    private BlobChecksum upload(BlobInfo blobInfo, InputStream input, long size, String knownCrc32c) throws IOException, InterruptedException {
+        var existing = existingBlob(blobInfo);
+        var generation = existing != null ? existing.getGeneration() : null;
+        if (existing != null && isIdentical(existing, gzipCompression ? DataSource.Part.SIZE_UNKNOWN : size, knownCrc32c)) {
+            return skip(existing);
+        }
+        var head = new byte[0];
+        if (size <= singleUploadThreshold) {
+            // also covers SIZE_UNKNOWN, reading one byte more than the threshold tells whether the part fits
+            head = input.readNBytes(singleUploadThreshold + 1);
+            if (head.length <= singleUploadThreshold) {
+                var content = encode(head);
+                var checksumOutput = new ChecksumOutputStream(OutputStream.nullOutputStream(), md5Checksum);
+                checksumOutput.write(content);
+                var checksum = new BlobChecksum(blobInfo.getBucket(), blobInfo.getName(), checksumOutput.getCrc32c(), checksumOutput.getMd5());
+                if (existing != null && isIdentical(existing, content.length, checksum.getCrc32c())) {
+                    return skip(existing);
+                }
+                // GCS validates the content against the checksums sent along and rejects the upload on a mismatch
+                var checkedBlobInfo = withChecksum(blobInfo, checksum);
+                write(checkedBlobInfo, true, () -> storageClient.create(checkedBlobInfo, content, targetOptions(generation)));
+                return checksum;
+            }
+        }
+        // the input stream is consumed while writing, every chunk of the session is a request within the limits. A
+        // checksum known before uploading is sent along, GCS validates the content against it when finalizing
+        var checkedBlobInfo = knownCrc32c != null ? blobInfo.toBuilder().setCrc32c(knownCrc32c).build() : blobInfo;
+        var checksumOutput = new ChecksumOutputStream(new ChunkedUploadOutputStream(checkedBlobInfo, writeOptions(generation, knownCrc32c != null)), md5Checksum);
+        var output = encode(checksumOutput);
+        try {
+            output.write(head);
+            ByteStreams.copy(input, output);
+        } catch (IOException | RuntimeException e) {
+            // closing the channel would finalize the object with the content read so far, the abandoned session
+            // expires instead and the existing object stays untouched
+            abandon(output);
+            throw e;
+        }
+        output.close();
+        var checksum = new BlobChecksum(blobInfo.getBucket(), blobInfo.getName(), checksumOutput.getCrc32c(), checksumOutput.getMd5());
+        if (knownCrc32c == null) {
+            verifyChecksum(blobInfo, checksum);
+        }
+        return checksum;
+    }
+
+    private Blob existingBlob(BlobInfo blobInfo) {
+        if (!skipIdentical) {
+            return null;
+        }
+        return storageClient.get(blobInfo.getBlobId(), Storage.BlobGetOption.fields(Storage.BlobField.SIZE, Storage.BlobField.CRC32C,
+                Storage.BlobField.MD5HASH, Storage.BlobField.GENERATION, Storage.BlobField.METADATA));
+    }
+
+    private boolean isIdentical(Blob existing, long size, String crc32c) {
+        var sizeMatches = size == DataSource.Part.SIZE_UNKNOWN || Objects.equals(existing.getSize(), size);
+        return sizeMatches && crc32c != null && crc32c.equals(existing.getCrc32c());
+    }
+
+    private BlobChecksum skip(Blob existing) {
+        var checksum = new BlobChecksum(existing.getBucket(), existing.getName(), existing.getCrc32c(), md5Checksum ? existing.getMd5() : null);
+        monitor.debug("Skipped identical " + checksum);
+        return checksum;
+    }
+
+    private BlobInfo withChecksum(BlobInfo blobInfo, BlobChecksum checksum) {
+        var builder = blobInfo.toBuilder().setCrc32c(checksum.getCrc32c());
+        if (checksum.getMd5() != null) {
+            builder.setMd5(checksum.getMd5());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resumable sessions of content whose checksum is not known upfront are finalized without a checksum, the storage
+     * client cannot attach the one computed while streaming to the final request. The checksums of the committed
+     * object are compared instead and a mismatching object is deleted, unless it was replaced meanwhile.
+     */
+    private void verifyChecksum(BlobInfo blobInfo, BlobChecksum checksum) throws IOException {
+        var blob = storageClient.get(blobInfo.getBlobId(), Storage.BlobGetOption.fields(Storage.BlobField.CRC32C, Storage.BlobField.MD5HASH,
+                Storage.BlobField.GENERATION));
+        if (blob == null) {
+            throw new IOException("Blob " + blobInfo.getName() + " not found after upload");
+        }
+        var crc32cMatches = checksum.getCrc32c().equals(blob.getCrc32c());
+        var md5Matches = checksum.getMd5() == null || checksum.getMd5().equals(blob.getMd5());
+        if (!crc32cMatches || !md5Matches) {
+            storageClient.delete(blobInfo.getBlobId(), Storage.BlobSourceOption.generationMatch(blob.getGeneration()));
+            throw new IOException(String.format("Checksum mismatch for blob %s, uploaded crc32c %s but stored %s",
+                    blobInfo.getName(), checksum.getCrc32c(), blob.getCrc32c()));
+        }
+    }
+
+    /**
+     * Releases the compressor of an output that is not closed, the underlying upload session is left unfinished.
+     */
+    private void abandon(OutputStream output) {
+        if (output instanceof LeveledGzipOutputStream gzipOutput) {
+            gzipOutput.abandon();
+        }
+    }
+
+    private byte[] encode(byte[] content) throws IOException {
+        if (!gzipCompression) {
+            return content;
+        }
+        var compressed = new ByteArrayOutputStream();
+        try (var output = encode(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Wraps the output into a gzip stream if compression is enabled, memory is bounded by the compression buffer.
+     */
+    private OutputStream encode(OutputStream output) throws IOException {
+        return gzipCompression ? new LeveledGzipOutputStream(output, compressionLevel) : output;
+    }
+
+    /**
+     * New blobs must not exist yet, an existing blob is only replaced by the generation it was compared with.
+     */
+    private Storage.BlobTargetOption[] targetOptions(Long generation) {
+        var precondition = generation != null ? Storage.BlobTargetOption.generationMatch(generation) : Storage.BlobTargetOption.doesNotExist();
+        if (gzipCompression) {
+            // content is compressed already, compressing the request again would only cost CPU
+            return new Storage.BlobTargetOption[]{ precondition, Storage.BlobTargetOption.disableGzipContent() };
+        }
+        return new Storage.BlobTargetOption[]{ precondition };
+    }
+
+    /**
+     * Checksummed sessions let GCS validate the content against the crc32c set on the blob info.
+     */
+    private Storage.BlobWriteOption[] writeOptions(Long generation, boolean checksummed) {
+        var options = new ArrayList<Storage.BlobWriteOption>();
+        options.add(generation != null ? Storage.BlobWriteOption.generationMatch(generation) : Storage.BlobWriteOption.doesNotExist());
+        if (checksummed) {
+            options.add(Storage.BlobWriteOption.crc32cMatch());
+        }
+        if (gzipCompression) {
+            options.add(Storage.BlobWriteOption.disableGzipContent());
+        }
+        return options.toArray(Storage.BlobWriteOption[]::new);
+    }
+
+    /**
+     * Runs a write within the request rate and concurrency limits of the bucket. Throttled writes, if repeatable, are
+     * retried after an exponential backoff with full jitter.
+     */
+    private void write(BlobInfo blobInfo, boolean repeatable, BlobWrite blobWrite) throws IOException, InterruptedException {
+        for (var attempt = 0; ; attempt++) {
+            try {
+                request(blobInfo.getBucket(), blobWrite);
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (!isThrottled(e) || !repeatable || attempt >= maxRetries) {
+                    throw e;
+                }
+                var backoff = Math.min(MAX_RETRY_DELAY.toMillis(), retryBaseDelay.toMillis() << Math.min(attempt, 20));
+                var delay = ThreadLocalRandom.current().nextLong(backoff + 1);
+                monitor.debug(String.format("Write of blob %s throttled, retrying in %d ms", blobInfo.getName(), delay));
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Runs a single request within the request rate and concurrency limits of the bucket. The latency of the request
+     * adjusts the concurrency limit, a throttled request shrinks both limits.
+     */
+    private void request(String bucketName, BlobWrite blobWrite) throws IOException, InterruptedException {
+        var concurrencyLimiter = concurrencyLimiters.apply(bucketName);
+        var rateLimiter = rateLimiters != null ? rateLimiters.apply(bucketName) : null;
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+        concurrencyLimiter.acquire();
+        var start = System.nanoTime();
+        try {
+            blobWrite.run();
+            concurrencyLimiter.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            if (!isThrottled(e)) {
+                concurrencyLimiter.onFailure();
+                throw e;
+            }
+            concurrencyLimiter.onThrottled();
+            if (rateLimiter != null) {
+                rateLimiter.onThrottled();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isThrottled(Throwable throwable) {
+        var code = statusCode(throwable);
+        return code == HTTP_TOO_MANY_REQUESTS || code == HTTP_SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * Returns the HTTP status code of the storage exception causing the throwable, or zero if there is none.
+     */
+    private int statusCode(Throwable throwable) {
+        for (var cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StorageException storageException) {
+                return storageException.getCode();
+            }
+        }
+        return 0;
+    }
+
+    @FunctionalInterface
+    private interface BlobWrite {
+        void run() throws IOException;
+    }
+
+    /**
+     * Writes into a resumable upload session one chunk at a time. The session sends a chunk as soon as its buffer is
+     * full, so every chunk and the final request are a request of their own within the limits of the bucket. Chunks
+     * are retried by the storage client itself.
+     */
+    private class ChunkedUploadOutputStream extends OutputStream {
+        private final String bucketName;
+        private final WriteChannel channel;
+        private final byte[] chunk = new byte[uploadChunkSize];
+        private int length;
+
+        ChunkedUploadOutputStream(BlobInfo blobInfo, Storage.BlobWriteOption... options) {
+            bucketName = blobInfo.getBucket();
+            channel = storageClient.writer(blobInfo, options);
+            channel.setChunkSize(uploadChunkSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            while (count > 0) {
+                var copied = Math.min(count, chunk.length - length);
+                System.arraycopy(bytes, offset, chunk, length, copied);
+                length += copied;
+                offset += copied;
+                count -= copied;
+                if (length == chunk.length) {
+                    sendChunk();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (length > 0) {
+                sendChunk();
+            }
+            limited(channel::close);
+        }
+
+        private void sendChunk() throws IOException {
+            var buffer = ByteBuffer.wrap(chunk, 0, length);
+            limited(() -> {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            });
+            length = 0;
+        }
+
+        private void limited(BlobWrite blobWrite) throws IOException {
+            try {
+                request(bucketName, blobWrite);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to upload to bucket " + bucketName);
+            }
+        }
+    }
+
+    /**
+     * Writes a rolling file into one upload session per destination bucket. A bucket whose session fails is dropped
+     * from the file and from all following ones while the others are written on, its session is abandoned. Only a file
+     * that no bucket is left for fails, it is not finalized when closed.
+     */
+    private class RollingFileOutputStream extends OutputStream {
+        private final String name;
+        private final Map<BlobInfo, ChunkedUploadOutputStream> uploads = new LinkedHashMap<>();
+        private final ChecksumOutputStream checksumOutput = new ChecksumOutputStream(OutputStream.nullOutputStream(), md5Checksum);
+        private boolean failed;
+        private boolean closed;
+
+        RollingFileOutputStream(String name, List<BlobInfo> blobInfos) throws IOException {
+            this.name = name;
+            for (var blobInfo : blobInfos) {
+                try {
+                    uploads.put(blobInfo, new ChunkedUploadOutputStream(blobInfo, writeOptions(null, false)));
+                } catch (RuntimeException e) {
+                    dropBucket(blobInfo, e);
+                }
+            }
+            requireUploads();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            try {
+                checksumOutput.write(bytes, offset, length);
+                for (var iterator = uploads.entrySet().iterator(); iterator.hasNext(); ) {
+                    var upload = iterator.next();
+                    try {
+                        upload.getValue().write(bytes, offset, length);
+                    } catch (InterruptedIOException e) {
+                        throw e;
+                    } catch (IOException | RuntimeException e) {
+                        iterator.remove();
+                        dropBucket(upload.getKey(), e);
+                    }
+                }
+                requireUploads();
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (failed) {
+                throw new IOException("Rolling file " + name + " was not finalized after a failed write");
+            }
+            var crc32c = checksumOutput.getCrc32c();
+            var md5 = checksumOutput.getMd5();
+            for (var upload : uploads.entrySet()) {
+                var blobInfo = upload.getKey();
+                try {
+                    upload.getValue().close();
+                    var checksum = new BlobChecksum(blobInfo.getBucket(), blobInfo.getName(), crc32c, md5);
+                    verifyChecksum(blobInfo, checksum);
+                    checksums.add(checksum);
+                } catch (InterruptedIOException e) {
+                    throw e;
+                } catch (IOException | RuntimeException e) {
+                    dropBucket(blobInfo, e);
+                }
+            }
+            if (failedRollingBuckets.size() == bucketNames.size()) {
+                throw new IOException("Rolling file " + name + " could not be written to any bucket");
+            }
+        }
+
+        private void dropBucket(BlobInfo blobInfo, Exception e) {
+            monitor.severe("Error writing rolling file " + name + " to bucket " + blobInfo.getBucket() + ", the bucket gets no further rolling files", e);
+            failedRollingBuckets.put(blobInfo.getBucket(), "Error writing rolling file " + name + ": " + e.getMessage());
+        }
+
+        private void requireUploads() throws IOException {
+            if (uploads.isEmpty()) {
+                throw new IOException("Rolling file " + name + " could not be written to any bucket");
+            }
+        }
+    }
+
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream output, int level) throws IOException {
+            super(output, COMPRESSION_BUFFER_SIZE);
+            def.setLevel(level);
+        }
+
+        void abandon() {
+            def.end();
+        }
+    }
+
     public static class Builder extends ParallelSink.Builder<Builder, GcsDataSink> {
 
         private Builder() {
@@ -82,13 +1025,203 @@ public class GcsDataSink extends ParallelSink {
         }
 
         public Builder bucketName(String bucketName) {
-            sink.bucketName = bucketName;
+            sink.bucketNames = bucketName != null ? List.of(bucketName) : null;
+            return this;
+        }
+
+        /**
+         * Destination buckets of a fan-out, every part is read once and written to all of them.
+         */
+        public Builder bucketNames(List<String> bucketNames) {
+            sink.bucketNames = bucketNames;
+            return this;
+        }
+
+        public Builder singleUploadThreshold(int singleUploadThreshold) {
+            sink.singleUploadThreshold = singleUploadThreshold;
+            return this;
+        }
+
+        public Builder maxConcurrentUploads(int maxConcurrentUploads) {
+            sink.maxConcurrentUploads = maxConcurrentUploads;
+            return this;
+        }
+
+        public Builder uploadExecutorService(ExecutorService uploadExecutorService) {
+            sink.uploadExecutorService = uploadExecutorService;
+            return this;
+        }
+
+        /**
+         * Runs the per-bucket uploads of fanned-out and spooled parts. They are waited for by tasks of the upload
+         * executor, so sharing its threads could deadlock.
+         */
+        public Builder branchExecutorService(ExecutorService branchExecutorService) {
+            sink.branchExecutorService = branchExecutorService;
+            return this;
+        }
+
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            sink.concurrencyLimiters = bucketName -> concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * Resolves the limiter of a destination bucket.
+         */
+        public Builder concurrencyLimiters(Function<String, AdaptiveConcurrencyLimiter> concurrencyLimiters) {
+            sink.concurrencyLimiters = concurrencyLimiters;
+            return this;
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            sink.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder retryBaseDelay(Duration retryBaseDelay) {
+            sink.retryBaseDelay = retryBaseDelay;
+            return this;
+        }
+
+        /**
+         * Size of the chunks resumable uploads are sent in, a multiple of 256 KiB.
+         */
+        public Builder uploadChunkSize(int uploadChunkSize) {
+            sink.uploadChunkSize = uploadChunkSize;
+            return this;
+        }
+
+        public Builder gzipCompression(boolean gzipCompression) {
+            sink.gzipCompression = gzipCompression;
+            return this;
+        }
+
+        public Builder compressionLevel(int compressionLevel) {
+            sink.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        public Builder blobNameStrategy(BlobNameStrategy blobNameStrategy) {
+            sink.blobNameStrategy = blobNameStrategy;
+            return this;
+        }
+
+        public Builder manifestName(String manifestName) {
+            sink.manifestName = manifestName;
+            return this;
+        }
+
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            sink.objectMapper = objectMapper;
+            return this;
+        }
+
+        public Builder md5Checksum(boolean md5Checksum) {
+            sink.md5Checksum = md5Checksum;
+            return this;
+        }
+
+        /**
+         * Appends the row parts of a tabular source to rolling files of the given format instead of writing one blob
+         * per part.
+         */
+        public Builder rollingFormat(RollingFormat rollingFormat) {
+            sink.rollingFormat = rollingFormat;
+            return this;
+        }
+
+        public Builder fileNameTemplate(FileNameTemplate fileNameTemplate) {
+            sink.fileNameTemplate = fileNameTemplate;
+            return this;
+        }
+
+        public Builder targetFileSize(long targetFileSize) {
+            sink.targetFileSize = targetFileSize;
+            return this;
+        }
+
+        public Builder maxFileRows(long maxFileRows) {
+            sink.maxFileRows = maxFileRows;
+            return this;
+        }
+
+        public Builder maxFileAge(Duration maxFileAge) {
+            sink.maxFileAge = maxFileAge;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            sink.clock = clock;
+            return this;
+        }
+
+        public Builder rowGroupSize(int rowGroupSize) {
+            sink.rowGroupSize = rowGroupSize;
+            return this;
+        }
+
+        /**
+         * Resolves the request rate limiter of a destination bucket, without one the request rate is not limited.
+         */
+        public Builder rateLimiters(Function<String, RequestRateLimiter> rateLimiters) {
+            sink.rateLimiters = rateLimiters;
+            return this;
+        }
+
+        /**
+         * Spools every part to local disk before uploading it, without a spool parts are streamed straight through.
+         */
+        public Builder diskSpool(DiskSpool diskSpool) {
+            sink.diskSpool = diskSpool;
+            return this;
+        }
+
+        /**
+         * Keeps existing blobs that are identical to the uploaded content instead of failing, differing ones are replaced.
+         */
+        public Builder skipIdentical(boolean skipIdentical) {
+            sink.skipIdentical = skipIdentical;
+            return this;
+        }
+
+        /**
+         * Stores every distinct content once under a name derived from its hash and writes pointer objects under the
+         * blob names.
+         */
+        public Builder contentAddressed(boolean contentAddressed) {
+            sink.contentAddressed = contentAddressed;
+            return this;
+        }
+
+        public Builder contentPrefix(String contentPrefix) {
+            sink.contentPrefix = contentPrefix;
             return this;
         }
 
         @Override
         protected void validate() {
-            Objects.requireNonNull(sink.bucketName, "bucketName");
+            Objects.requireNonNull(sink.bucketNames, "bucketNames");
+            if (sink.bucketNames.isEmpty()) {
+                throw new IllegalArgumentException("At least one bucket name is required");
+            }
+            Objects.requireNonNull(sink.uploadExecutorService, "uploadExecutorService");
+            Objects.requireNonNull(sink.branchExecutorService, "branchExecutorService");
+            Objects.requireNonNull(sink.concurrencyLimiters, "concurrencyLimiters");
+            Objects.requireNonNull(sink.blobNameStrategy, "blobNameStrategy");
+            if (sink.manifestName != null || sink.rollingFormat != null) {
+                Objects.requireNonNull(sink.objectMapper, "objectMapper");
+            }
+            Objects.requireNonNull(sink.contentPrefix, "contentPrefix");
+            if (sink.rollingFormat != null && sink.fileNameTemplate == null) {
+                sink.fileNameTemplate = FileNameTemplate.defaultTemplate(sink.rollingFormat);
+            }
+            if (sink.maxConcurrentUploads < 1) {
+                throw new IllegalArgumentException("maxConcurrentUploads must be at least 1");
+            }
+            if (sink.uploadChunkSize < UPLOAD_CHUNK_GRANULARITY || sink.uploadChunkSize % UPLOAD_CHUNK_GRANULARITY != 0) {
+                throw new IllegalArgumentException("uploadChunkSize must be a positive multiple of " + UPLOAD_CHUNK_GRANULARITY);
+            }
         }
     }
 }
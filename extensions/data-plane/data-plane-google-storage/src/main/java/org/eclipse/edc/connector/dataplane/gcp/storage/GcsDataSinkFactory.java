@@ -15,16 +15,25 @@
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
 
-import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.AdaptiveConcurrencyLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.RequestRateLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.naming.BlobNameStrategy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.naming.TemplateBlobNameStrategy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.FileNameTemplate;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingFormat;
+import org.eclipse.edc.connector.dataplane.gcp.storage.spool.DiskSpool;
 import org.eclipse.edc.connector.dataplane.gcp.storage.validation.GcsSinkDataAddressValidationRule;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSink;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSinkFactory;
 import org.eclipse.edc.connector.dataplane.util.validation.ValidationRule;
 import org.eclipse.edc.gcp.common.GcpAccessToken;
 import org.eclipse.edc.gcp.common.GcpException;
+import org.eclipse.edc.gcp.common.GcpServiceAccount;
+import org.eclipse.edc.gcp.common.RefreshingCredentials;
+import org.eclipse.edc.gcp.iam.IamService;
 import org.eclipse.edc.gcp.storage.GcsStoreSchema;
 import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.monitor.Monitor;
@@ -36,23 +45,44 @@ import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.util.Date;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 
 public class GcsDataSinkFactory implements DataSinkFactory {
 
-    private final ValidationRule<DataAddress> validation = new GcsSinkDataAddressValidationRule();
+    private final ValidationRule<DataAddress> validation;
     private final ExecutorService executorService;
+    private final ExecutorService uploadExecutorService;
+    private final ExecutorService branchExecutorService;
     private final Monitor monitor;
     private final Vault vault;
     private final TypeManager typeManager;
+    private final IamService iamService;
+    private final GcsSinkConfiguration configuration;
+    private final Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+    private final Map<String, RequestRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final DiskSpool diskSpool;
 
 
-    public GcsDataSinkFactory(ExecutorService executorService, Monitor monitor, Vault vault, TypeManager typeManager) {
+    public GcsDataSinkFactory(ExecutorService executorService, ExecutorService uploadExecutorService, ExecutorService branchExecutorService,
+                              Monitor monitor, Vault vault, TypeManager typeManager, IamService iamService, GcsSinkConfiguration configuration) {
         this.executorService = executorService;
+        this.uploadExecutorService = uploadExecutorService;
+        this.branchExecutorService = branchExecutorService;
         this.monitor = monitor;
         this.vault = vault;
         this.typeManager = typeManager;
+        this.iamService = iamService;
+        this.configuration = configuration;
+        validation = new GcsSinkDataAddressValidationRule(configuration.getMaxBuckets());
+        diskSpool = new DiskSpool(configuration.getSpoolDirectory(), configuration.getSpoolCapacity());
     }
 
     @Override
@@ -75,28 +105,105 @@ public class GcsDataSinkFactory implements DataSinkFactory {
 
         var destination = request.getDestinationDataAddress();
 
-        var storageClient = createStorageClient(destination.getKeyName());
+        var storageClient = createStorageClient(destination);
 
         return GcsDataSink.Builder.newInstance()
                 .storageClient(storageClient)
-                .bucketName(destination.getStringProperty(GcsStoreSchema.BUCKET_NAME))
+                .bucketNames(bucketNames(destination))
                 .blobName(destination.getStringProperty(GcsStoreSchema.BLOB_NAME))
+                .singleUploadThreshold(configuration.getSingleUploadThreshold())
+                .maxConcurrentUploads(configuration.getMaxConcurrentUploads())
+                .uploadExecutorService(uploadExecutorService)
+                .branchExecutorService(branchExecutorService)
+                .concurrencyLimiters(this::concurrencyLimiter)
+                .rateLimiters(this::rateLimiter)
+                .maxRetries(configuration.getMaxRetries())
+                .gzipCompression(GcsStoreSchema.COMPRESSION_GZIP.equalsIgnoreCase(destination.getStringProperty(GcsStoreSchema.COMPRESSION)))
+                .compressionLevel(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.COMPRESSION_LEVEL))
+                        .map(Integer::parseInt)
+                        .orElse(Deflater.DEFAULT_COMPRESSION))
+                .blobNameStrategy(blobNameStrategy(destination))
+                .manifestName(destination.getStringProperty(GcsStoreSchema.MANIFEST_NAME))
+                .objectMapper(typeManager.getMapper())
+                .md5Checksum(Boolean.parseBoolean(destination.getStringProperty(GcsStoreSchema.CHECKSUM_MD5)))
+                .rollingFormat(RollingFormat.fromName(destination.getStringProperty(GcsStoreSchema.OUTPUT_FORMAT)))
+                .fileNameTemplate(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.FILE_NAME_TEMPLATE))
+                        .map(FileNameTemplate::new)
+                        .orElse(null))
+                .targetFileSize(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.TARGET_FILE_SIZE))
+                        .map(Long::parseLong)
+                        .orElse(GcsDataSink.DEFAULT_TARGET_FILE_SIZE))
+                .maxFileRows(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.MAX_FILE_ROWS))
+                        .map(Long::parseLong)
+                        .orElse(Long.MAX_VALUE))
+                .maxFileAge(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.MAX_FILE_AGE_SECONDS))
+                        .map(seconds -> Duration.ofSeconds(Long.parseLong(seconds)))
+                        .orElse(null))
+                .rowGroupSize(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.ROW_GROUP_SIZE))
+                        .map(Integer::parseInt)
+                        .orElse(GcsDataSink.DEFAULT_ROW_GROUP_SIZE))
+                .diskSpool(Boolean.parseBoolean(destination.getStringProperty(GcsStoreSchema.SPOOL_TO_DISK)) ? diskSpool : null)
+                .skipIdentical(GcsStoreSchema.IF_EXISTS_SKIP_IDENTICAL.equalsIgnoreCase(destination.getStringProperty(GcsStoreSchema.IF_EXISTS)))
+                .contentAddressed(Boolean.parseBoolean(destination.getStringProperty(GcsStoreSchema.CONTENT_ADDRESSED)))
+                .contentPrefix(Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.CONTENT_PREFIX))
+                        .orElse(GcsDataSink.DEFAULT_CONTENT_PREFIX))
                 .requestId(request.getId())
                 .executorService(executorService)
                 .monitor(monitor)
                 .build();
     }
 
-    private Storage createStorageClient(String keyName) {
+    /**
+     * A list of bucket names turns the sink into a fan-out that writes every part to all of them.
+     */
+    private List<String> bucketNames(DataAddress destination) {
+        var bucketNames = destination.getStringProperty(GcsStoreSchema.BUCKET_NAMES);
+        if (bucketNames == null || bucketNames.isBlank()) {
+            return List.of(destination.getStringProperty(GcsStoreSchema.BUCKET_NAME));
+        }
+        return Arrays.stream(bucketNames.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the adaptive limiter of the bucket, shared by all sinks created by this factory.
+     */
+    private AdaptiveConcurrencyLimiter concurrencyLimiter(String bucketName) {
+        return concurrencyLimiters.computeIfAbsent(bucketName, name -> new AdaptiveConcurrencyLimiter(
+                configuration.getLimiterInitialLimit(), configuration.getLimiterMaxLimit(), configuration.getLimiterLatencyThreshold()));
+    }
+
+    /**
+     * A blob name template takes precedence over a plain hash prefix, without either the part names are kept.
+     */
+    private BlobNameStrategy blobNameStrategy(DataAddress destination) {
+        var template = destination.getStringProperty(GcsStoreSchema.BLOB_NAME_TEMPLATE);
+        if (template != null) {
+            return new TemplateBlobNameStrategy(template);
+        }
+        return Optional.ofNullable(destination.getStringProperty(GcsStoreSchema.BLOB_NAME_HASH_PREFIX_LENGTH))
+                .map(length -> (BlobNameStrategy) TemplateBlobNameStrategy.hashPrefix(Integer.parseInt(length)))
+                .orElse(BlobNameStrategy.IDENTITY);
+    }
+
+    /**
+     * Returns the request rate limiter of the bucket, shared by all sinks created by this factory.
+     */
+    private RequestRateLimiter rateLimiter(String bucketName) {
+        return rateLimiters.computeIfAbsent(bucketName, name -> new RequestRateLimiter(
+                configuration.getRateInitial(), configuration.getRateMax(), configuration.getRateRampInterval()));
+    }
+
+    private Storage createStorageClient(DataAddress destination) {
         GoogleCredentials googleCredentials;
+        var keyName = destination.getKeyName();
         //Get credential from the token if it exists in the vault otherwise use the default credentials of the system.
         if (keyName != null && !keyName.isEmpty()) {
-            var credentialsContent = vault.resolveSecret(keyName);
-            var gcsAccessToken = typeManager.readValue(credentialsContent, GcpAccessToken.class);
-            googleCredentials = GoogleCredentials.create(
-                    new AccessToken(gcsAccessToken.getToken(),
-                            new Date(gcsAccessToken.getExpiration()))
-            );
+            // tokens live for an hour, long transfers need new ones while they are running
+            googleCredentials = new RefreshingCredentials(readAccessToken(keyName), () -> refreshAccessToken(keyName, destination));
         } else {
             try {
                 googleCredentials = GoogleCredentials.getApplicationDefault();
@@ -105,8 +212,40 @@ public class GcsDataSinkFactory implements DataSinkFactory {
             }
         }
 
+        // resumable upload chunks are retried by the client with jittered exponential backoff
+        var retrySettings = StorageOptions.getDefaultRetrySettings().toBuilder()
+                .setMaxAttempts(configuration.getMaxRetries() + 1)
+                .build();
         return StorageOptions.newBuilder()
                 .setCredentials(googleCredentials)
+                .setRetrySettings(retrySettings)
                 .build().getService();
     }
-}
\ No newline at end of file
+
+    private GcpAccessToken readAccessToken(String keyName) {
+        var credentialsContent = vault.resolveSecret(keyName);
+        if (credentialsContent == null) {
+            throw new GcpException("No access token found in the vault under " + keyName);
+        }
+        return typeManager.readValue(credentialsContent, GcpAccessToken.class);
+    }
+
+    /**
+     * Prefers a token that was stored in the vault meanwhile, otherwise creates a new one for the service account the
+     * destination was provisioned with. Creating it needs the token creator role on that service account.
+     */
+    private GcpAccessToken refreshAccessToken(String keyName, DataAddress destination) {
+        var storedToken = readAccessToken(keyName);
+        var remaining = storedToken.getExpiration() - System.currentTimeMillis();
+        if (remaining > RefreshingCredentials.REFRESH_MARGIN.multipliedBy(2).toMillis()) {
+            return storedToken;
+        }
+        var serviceAccountEmail = destination.getStringProperty(GcsStoreSchema.SERVICE_ACCOUNT_EMAIL);
+        if (serviceAccountEmail == null || serviceAccountEmail.isBlank()) {
+            throw new GcpException("Access token " + keyName + " expires and the destination names no service account to create a new one for");
+        }
+        monitor.debug("Creating a new access token for " + serviceAccountEmail);
+        var serviceAccount = new GcpServiceAccount(serviceAccountEmail, destination.getStringProperty(GcsStoreSchema.SERVICE_ACCOUNT_NAME), "");
+        return iamService.createAccessToken(serviceAccount);
+    }
+}
@@ -15,8 +15,10 @@
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
 import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.Storage;
+import org.eclipse.edc.connector.dataplane.gcp.storage.checksum.ChecksummedPart;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult;
 import org.eclipse.edc.spi.EdcException;
@@ -93,11 +95,12 @@ public class GcsDataSource implements DataSource {
         }
     }
 
-    private static class GoogleStoragePart implements Part {
+    private static class GoogleStoragePart implements ChecksummedPart {
         private final Storage storageClient;
         private final String bucketName;
         private final String blobName;
         private ReadChannel readChannel;
+        private Blob metadata;
 
         private GoogleStoragePart(Storage storageClient, String bucketName, String blobName) {
             this.storageClient = storageClient;
@@ -110,12 +113,37 @@ public class GcsDataSource implements DataSource {
             return blobName;
         }
 
+        @Override
+        public long size() {
+            var size = metadata().getSize();
+            return size != null ? size : SIZE_UNKNOWN;
+        }
+
+        @Override
+        public String crc32c() {
+            return metadata().getCrc32c();
+        }
+
         @Override
         public InputStream openStream() {
             readChannel = storageClient.reader(BlobId.of(bucketName, blobName));
             return Channels.newInputStream(readChannel);
         }
 
+        /**
+         * Size and checksum of the object are fetched once, only if a sink asks for them. Sinks only do so for features
+         * that need them, such as skipping identical blobs or spooling within the disk capacity.
+         */
+        private Blob metadata() {
+            if (metadata == null) {
+                metadata = storageClient.get(BlobId.of(bucketName, blobName), Storage.BlobGetOption.fields(Storage.BlobField.SIZE, Storage.BlobField.CRC32C));
+                if (metadata == null) {
+                    throw new EdcException("Blob " + blobName + " not found in bucket " + bucketName);
+                }
+            }
+            return metadata;
+        }
+
         public void close() {
             readChannel.close();
             readChannel = null;
@@ -0,0 +1,276 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Runtime configuration of the Google Cloud Storage data sinks, provides accessors to parameters.
+ */
+public class GcsSinkConfiguration {
+    public static final int DEFAULT_SINGLE_UPLOAD_THRESHOLD = 8 * 1024 * 1024;
+    public static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 16;
+    public static final int DEFAULT_UPLOAD_THREADS = 32;
+    public static final int DEFAULT_MAX_BUCKETS = 8;
+    public static final int DEFAULT_LIMITER_INITIAL_LIMIT = 8;
+    public static final int DEFAULT_LIMITER_MAX_LIMIT = 64;
+    public static final long DEFAULT_LIMITER_LATENCY_THRESHOLD_MS = 2000;
+    public static final int DEFAULT_MAX_RETRIES = 5;
+    public static final int DEFAULT_RATE_INITIAL = 1000;
+    public static final int DEFAULT_RATE_MAX = 16000;
+    public static final long DEFAULT_RATE_RAMP_INTERVAL_MS = 20 * 60 * 1000;
+    public static final String DEFAULT_SPOOL_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "edc-gcs-spool").toString();
+    public static final long DEFAULT_SPOOL_CAPACITY = 10L * 1024 * 1024 * 1024;
+
+    private int singleUploadThreshold = DEFAULT_SINGLE_UPLOAD_THRESHOLD;
+    private int maxConcurrentUploads = DEFAULT_MAX_CONCURRENT_UPLOADS;
+    private int uploadThreads = DEFAULT_UPLOAD_THREADS;
+    private int maxBuckets = DEFAULT_MAX_BUCKETS;
+    private int limiterInitialLimit = DEFAULT_LIMITER_INITIAL_LIMIT;
+    private int limiterMaxLimit = DEFAULT_LIMITER_MAX_LIMIT;
+    private Duration limiterLatencyThreshold = Duration.ofMillis(DEFAULT_LIMITER_LATENCY_THRESHOLD_MS);
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private int rateInitial = DEFAULT_RATE_INITIAL;
+    private int rateMax = DEFAULT_RATE_MAX;
+    private Duration rateRampInterval = Duration.ofMillis(DEFAULT_RATE_RAMP_INTERVAL_MS);
+    private Path spoolDirectory = Path.of(DEFAULT_SPOOL_DIRECTORY);
+    private long spoolCapacity = DEFAULT_SPOOL_CAPACITY;
+
+    private GcsSinkConfiguration() {
+    }
+
+    /**
+     * Maximum size of a part that is uploaded with a single request.
+     *
+     * @return the threshold in bytes, larger parts are uploaded through a resumable upload session.
+     */
+    public int getSingleUploadThreshold() {
+        return singleUploadThreshold;
+    }
+
+    /**
+     * Maximum number of uploads a sink keeps in flight for one partition of parts.
+     *
+     * @return the maximum number of concurrent uploads.
+     */
+    public int getMaxConcurrentUploads() {
+        return maxConcurrentUploads;
+    }
+
+    /**
+     * Number of threads all sinks of the connector upload parts with.
+     *
+     * @return the size of the upload thread pool.
+     */
+    public int getUploadThreads() {
+        return uploadThreads;
+    }
+
+    /**
+     * Maximum number of destination buckets a sink writes every part to.
+     *
+     * @return the maximum number of bucket names of a destination.
+     */
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    /**
+     * Number of concurrent writes per bucket the adaptive limiter starts with.
+     *
+     * @return the initial limit of concurrent writes.
+     */
+    public int getLimiterInitialLimit() {
+        return limiterInitialLimit;
+    }
+
+    /**
+     * Number of concurrent writes per bucket the adaptive limiter never grows beyond.
+     *
+     * @return the maximum limit of concurrent writes.
+     */
+    public int getLimiterMaxLimit() {
+        return limiterMaxLimit;
+    }
+
+    /**
+     * Latency up to which a completed write lets the adaptive limiter grow.
+     *
+     * @return the latency threshold.
+     */
+    public Duration getLimiterLatencyThreshold() {
+        return limiterLatencyThreshold;
+    }
+
+    /**
+     * Number of times a throttled write is retried.
+     *
+     * @return the maximum number of retries.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Number of write requests per second and bucket the rate limiter starts with.
+     *
+     * @return the initial request rate.
+     */
+    public int getRateInitial() {
+        return rateInitial;
+    }
+
+    /**
+     * Number of write requests per second and bucket the rate limiter never ramps up beyond.
+     *
+     * @return the maximum request rate.
+     */
+    public int getRateMax() {
+        return rateMax;
+    }
+
+    /**
+     * Time of busy use without throttling after which the rate limiter doubles the request rate.
+     *
+     * @return the ramp interval.
+     */
+    public Duration getRateRampInterval() {
+        return rateRampInterval;
+    }
+
+    /**
+     * Local directory sinks spool parts to before uploading them.
+     *
+     * @return the spool directory.
+     */
+    public Path getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    /**
+     * Disk space all spool files of the connector may take together.
+     *
+     * @return the spool capacity in bytes.
+     */
+    public long getSpoolCapacity() {
+        return spoolCapacity;
+    }
+
+    public static class Builder {
+        private final GcsSinkConfiguration configuration;
+
+        private Builder() {
+            configuration = new GcsSinkConfiguration();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder singleUploadThreshold(int singleUploadThreshold) {
+            configuration.singleUploadThreshold = singleUploadThreshold;
+            return this;
+        }
+
+        public Builder maxConcurrentUploads(int maxConcurrentUploads) {
+            configuration.maxConcurrentUploads = maxConcurrentUploads;
+            return this;
+        }
+
+        public Builder uploadThreads(int uploadThreads) {
+            configuration.uploadThreads = uploadThreads;
+            return this;
+        }
+
+        public Builder maxBuckets(int maxBuckets) {
+            configuration.maxBuckets = maxBuckets;
+            return this;
+        }
+
+        public Builder limiterInitialLimit(int limiterInitialLimit) {
+            configuration.limiterInitialLimit = limiterInitialLimit;
+            return this;
+        }
+
+        public Builder limiterMaxLimit(int limiterMaxLimit) {
+            configuration.limiterMaxLimit = limiterMaxLimit;
+            return this;
+        }
+
+        public Builder limiterLatencyThreshold(Duration limiterLatencyThreshold) {
+            configuration.limiterLatencyThreshold = limiterLatencyThreshold;
+            return this;
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            configuration.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder rateInitial(int rateInitial) {
+            configuration.rateInitial = rateInitial;
+            return this;
+        }
+
+        public Builder rateMax(int rateMax) {
+            configuration.rateMax = rateMax;
+            return this;
+        }
+
+        public Builder rateRampInterval(Duration rateRampInterval) {
+            configuration.rateRampInterval = rateRampInterval;
+            return this;
+        }
+
+        public Builder spoolDirectory(Path spoolDirectory) {
+            configuration.spoolDirectory = spoolDirectory;
+            return this;
+        }
+
+        public Builder spoolCapacity(long spoolCapacity) {
+            configuration.spoolCapacity = spoolCapacity;
+            return this;
+        }
+
+        public GcsSinkConfiguration build() {
+            if (configuration.singleUploadThreshold < 0 || configuration.singleUploadThreshold == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("singleUploadThreshold must be between 0 and " + (Integer.MAX_VALUE - 1));
+            }
+            if (configuration.maxConcurrentUploads < 1) {
+                throw new IllegalArgumentException("maxConcurrentUploads must be at least 1");
+            }
+            if (configuration.uploadThreads < 1) {
+                throw new IllegalArgumentException("uploadThreads must be at least 1");
+            }
+            if (configuration.maxBuckets < 1) {
+                throw new IllegalArgumentException("maxBuckets must be at least 1");
+            }
+            if (configuration.limiterInitialLimit < 1 || configuration.limiterMaxLimit < configuration.limiterInitialLimit) {
+                throw new IllegalArgumentException("Limiter limits must satisfy 1 <= initial limit <= max limit");
+            }
+            if (configuration.rateInitial < 1 || configuration.rateMax < configuration.rateInitial) {
+                throw new IllegalArgumentException("Request rates must satisfy 1 <= initial rate <= max rate");
+            }
+            if (configuration.spoolCapacity < 1) {
+                throw new IllegalArgumentException("spoolCapacity must be at least 1");
+            }
+            if (configuration.maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries must not be negative");
+            }
+            return configuration;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage;
+
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.StorageTransferClient;
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.StorageTransferRequest;
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.TransferProgress;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.TransferService;
+import org.eclipse.edc.gcp.storage.GcsStoreSchema;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands bucket to bucket copies over to the Storage Transfer Service instead of streaming them through the data plane.
+ * Handles requests between two Google Cloud Storage addresses whose destination asks for it, all objects under the
+ * source prefix are copied by one transfer operation that is polled until it finished.
+ */
+public class GcsStorageTransferService implements TransferService {
+    private final StorageTransferClient client;
+    private final ScheduledExecutorService scheduler;
+    private final Duration pollInterval;
+    private final String projectId;
+    private final Monitor monitor;
+
+    public GcsStorageTransferService(StorageTransferClient client, ScheduledExecutorService scheduler, Duration pollInterval,
+                                     String projectId, Monitor monitor) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.pollInterval = pollInterval;
+        this.projectId = projectId;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean canHandle(DataFlowRequest request) {
+        return GcsStoreSchema.TYPE.equals(request.getSourceDataAddress().getType()) &&
+                GcsStoreSchema.TYPE.equals(request.getDestinationDataAddress().getType()) &&
+                Boolean.parseBoolean(request.getDestinationDataAddress().getStringProperty(GcsStoreSchema.STORAGE_TRANSFER_SERVICE));
+    }
+
+    @Override
+    public Result<Boolean> validate(DataFlowRequest request) {
+        if (projectId == null || projectId.isBlank()) {
+            return Result.failure("A project is required to run storage transfer jobs");
+        }
+        var result = validateAddress("Source", request.getSourceDataAddress());
+        if (result.failed()) {
+            return result;
+        }
+        return validateAddress("Destination", request.getDestinationDataAddress());
+    }
+
+    @Override
+    public CompletableFuture<StreamResult<Object>> transfer(DataFlowRequest request) {
+        var validation = validate(request);
+        if (validation.failed()) {
+            return CompletableFuture.completedFuture(StreamResult.error(validation.getFailureDetail()));
+        }
+
+        var source = request.getSourceDataAddress();
+        var destination = request.getDestinationDataAddress();
+        var transferRequest = new StorageTransferRequest(projectId, "EDC transfer process " + request.getProcessId(),
+                source.getStringProperty(GcsStoreSchema.BUCKET_NAME), prefix(source),
+                destination.getStringProperty(GcsStoreSchema.BUCKET_NAME), prefix(destination));
+        String operationName;
+        try {
+            operationName = client.startTransfer(transferRequest);
+        } catch (Exception e) {
+            monitor.severe("Error starting storage transfer for process " + request.getProcessId(), e);
+            return CompletableFuture.completedFuture(StreamResult.error("Error starting storage transfer: " + e.getMessage()));
+        }
+        monitor.info(String.format("Started storage transfer operation %s for process %s", operationName, request.getProcessId()));
+
+        var result = new CompletableFuture<StreamResult<Object>>();
+        var polling = scheduler.scheduleWithFixedDelay(() -> poll(operationName, result),
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((streamResult, throwable) -> {
+            polling.cancel(false);
+            if (result.isCancelled()) {
+                cancel(operationName);
+                deleteJob(operationName);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Polls the progress of the operation, errors while polling are logged and the next poll is waited for.
+     */
+    private void poll(String operationName, CompletableFuture<StreamResult<Object>> result) {
+        TransferProgress progress;
+        try {
+            progress = client.getProgress(operationName);
+        } catch (Exception e) {
+            monitor.warning("Error polling storage transfer operation " + operationName, e);
+            return;
+        }
+        monitor.debug(String.format("Storage transfer operation %s: %s", operationName, progress));
+        if (!progress.isDone()) {
+            return;
+        }
+        deleteJob(operationName);
+        if (progress.getState() == TransferProgress.State.SUCCEEDED && progress.getObjectsFailed() == 0) {
+            monitor.info(String.format("Storage transfer operation %s finished: %s", operationName, progress));
+            result.complete(StreamResult.success());
+        } else {
+            var detail = Optional.ofNullable(progress.getErrorDetail()).map(error -> ": " + error).orElse("");
+            result.complete(StreamResult.error(String.format("Storage transfer operation %s %s%s", operationName, progress, detail)));
+        }
+    }
+
+    private void cancel(String operationName) {
+        try {
+            client.cancel(operationName);
+        } catch (Exception e) {
+            monitor.warning("Error cancelling storage transfer operation " + operationName, e);
+        }
+    }
+
+    /**
+     * The one-off job would stay enabled in the project otherwise and could be run again.
+     */
+    private void deleteJob(String operationName) {
+        try {
+            client.deleteJob(operationName);
+        } catch (Exception e) {
+            monitor.warning("Error deleting transfer job of storage transfer operation " + operationName, e);
+        }
+    }
+
+    /**
+     * Storage transfer paths are either empty for the whole bucket or end with a slash.
+     */
+    private Result<Boolean> validateAddress(String role, DataAddress address) {
+        var bucketName = address.getStringProperty(GcsStoreSchema.BUCKET_NAME);
+        if (bucketName == null || bucketName.isBlank()) {
+            return Result.failure(role + " bucket name is required for a storage transfer");
+        }
+        var prefix = prefix(address);
+        if (!prefix.isEmpty() && !prefix.endsWith("/")) {
+            return Result.failure(role + " " + GcsStoreSchema.BLOB_PREFIX + " must end with a slash but was " + prefix);
+        }
+        return Result.success(true);
+    }
+
+    private String prefix(DataAddress address) {
+        return Optional.ofNullable(address.getStringProperty(GcsStoreSchema.BLOB_PREFIX)).orElse("");
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.checksum;
+
+/**
+ * Checksums of the bytes of an uploaded blob, base64 encoded in big-endian byte order as GCS reports them.
+ */
+public class BlobChecksum {
+    private final String bucketName;
+    private final String blobName;
+    private final String crc32c;
+    private final String md5;
+
+    public BlobChecksum(String bucketName, String blobName, String crc32c, String md5) {
+        this.bucketName = bucketName;
+        this.blobName = blobName;
+        this.crc32c = crc32c;
+        this.md5 = md5;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public String getBlobName() {
+        return blobName;
+    }
+
+    public String getCrc32c() {
+        return crc32c;
+    }
+
+    /**
+     * MD5 hash of the blob.
+     *
+     * @return the hash, or null if it was not computed.
+     */
+    public String getMd5() {
+        return md5;
+    }
+
+    @Override
+    public String toString() {
+        return "gs://" + bucketName + "/" + blobName + " crc32c=" + crc32c + (md5 != null ? " md5=" + md5 : "");
+    }
+}
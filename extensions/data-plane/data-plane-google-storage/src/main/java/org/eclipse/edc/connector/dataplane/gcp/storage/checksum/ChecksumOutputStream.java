@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.checksum;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+
+/**
+ * Computes the CRC32C and optionally the MD5 checksum of the bytes passing through it to the underlying stream.
+ */
+public class ChecksumOutputStream extends FilterOutputStream {
+    private final CRC32C crc32c = new CRC32C();
+    private final MessageDigest md5;
+
+    public ChecksumOutputStream(OutputStream output, boolean md5) {
+        super(output);
+        this.md5 = md5 ? md5Digest() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        crc32c.update(b);
+        if (md5 != null) {
+            md5.update((byte) b);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        crc32c.update(bytes, offset, length);
+        if (md5 != null) {
+            md5.update(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Returns the base64 encoded CRC32C of all bytes written so far.
+     */
+    public String getCrc32c() {
+        return encode(crc32c);
+    }
+
+    /**
+     * Returns the base64 encoded MD5 hash of all bytes written, completes the digest and may be called only once.
+     */
+    public String getMd5() {
+        return md5 != null ? BaseEncoding.base64().encode(md5.digest()) : null;
+    }
+
+    private static String encode(CRC32C crc32c) {
+        return BaseEncoding.base64().encode(Ints.toByteArray((int) crc32c.getValue()));
+    }
+
+    private static MessageDigest md5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported by the platform", e);
+        }
+    }
+}
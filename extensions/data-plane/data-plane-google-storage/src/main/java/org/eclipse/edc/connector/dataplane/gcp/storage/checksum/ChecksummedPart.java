@@ -0,0 +1,28 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.checksum;
+
+import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
+
+/**
+ * A part whose source already knows the checksum of its content, e.g. an object in another bucket.
+ */
+public interface ChecksummedPart extends DataSource.Part {
+
+    /**
+     * Returns the base64 encoded CRC32C of the content, or null if it is not known.
+     */
+    String crc32c();
+}
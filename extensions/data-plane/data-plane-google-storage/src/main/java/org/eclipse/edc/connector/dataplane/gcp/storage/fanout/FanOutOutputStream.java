@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.fanout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream that hands everything written to it to a number of branch input streams, each consumed by its own
+ * thread. Written bytes are collected into chunks that are shared by all branches and never modified once handed over.
+ * Every branch buffers a bounded number of chunks, so the writer is slowed down to the pace of the slowest branch. A
+ * branch that is closed by its consumer, e.g. because its destination failed, is dropped and no longer holds back the
+ * writer.
+ */
+public class FanOutOutputStream extends OutputStream {
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final int chunkSize;
+    private final List<Branch> branches = new ArrayList<>();
+    private byte[] chunk;
+    private int position;
+    private boolean closed;
+
+    public FanOutOutputStream(int chunkSize, int queueCapacity, int branchCount) {
+        if (chunkSize < 1 || queueCapacity < 1 || branchCount < 1) {
+            throw new IllegalArgumentException("chunkSize, queueCapacity and branchCount must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        for (var i = 0; i < branchCount; i++) {
+            branches.add(new Branch(queueCapacity));
+        }
+        chunk = new byte[chunkSize];
+    }
+
+    /**
+     * Returns the input stream of a branch, it must be consumed by another thread than the one writing.
+     */
+    public InputStream branch(int index) {
+        return branches.get(index);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (length > 0) {
+            var count = Math.min(length, chunkSize - position);
+            System.arraycopy(bytes, offset, chunk, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+            if (position == chunkSize) {
+                dispatch(chunk);
+                chunk = new byte[chunkSize];
+                position = 0;
+            }
+        }
+    }
+
+    /**
+     * Hands the remaining bytes and the end of the stream to all branches.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (position > 0) {
+            dispatch(Arrays.copyOf(chunk, position));
+        }
+        dispatch(END_OF_STREAM);
+        closed = true;
+    }
+
+    /**
+     * Fails all branches instead of ending them, so no consumer takes the data written so far for complete.
+     */
+    public void abort(Throwable cause) {
+        closed = true;
+        branches.forEach(branch -> branch.fail(cause));
+    }
+
+    private void dispatch(byte[] data) throws IOException {
+        for (var branch : branches) {
+            branch.offer(data);
+        }
+    }
+
+    private static class Branch extends InputStream {
+        private final BlockingQueue<byte[]> queue;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private byte[] current;
+        private int position;
+
+        Branch(int queueCapacity) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (current == null || position == current.length) {
+                if (current == END_OF_STREAM) {
+                    return -1;
+                }
+                current = take();
+                position = 0;
+                if (current == END_OF_STREAM) {
+                    return -1;
+                }
+            }
+            var count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        private byte[] take() throws IOException {
+            try {
+                byte[] data;
+                while ((data = queue.poll(OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) == null) {
+                    checkFailure();
+                }
+                checkFailure();
+                return data;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data");
+            }
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Writing to the fan-out stream failed", failure);
+            }
+        }
+
+        private void offer(byte[] data) throws IOException {
+            try {
+                var accepted = false;
+                while (!closed && !accepted) {
+                    // waits for the consumer of the branch to catch up
+                    accepted = queue.offer(data, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while handing data to a branch");
+            }
+        }
+
+        private void fail(Throwable cause) {
+            failure = cause;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.limiter;
+
+import java.time.Duration;
+
+/**
+ * Limits the number of concurrent writes with additive increase / multiplicative decrease (AIMD): the limit grows by
+ * about one for every limit's worth of writes that complete within the latency threshold and is cut by the decrease
+ * factor whenever a write is throttled.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit, Duration latencyThreshold) {
+        if (initialLimit < 1 || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= initialLimit <= maxLimit");
+        }
+        this.minLimit = 1;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Blocks until a write may start. Every acquire must be followed by one of the completion callbacks.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Completes a successful write, healthy latencies let the limit grow.
+     */
+    public synchronized void onSuccess(Duration latency) {
+        if (latency.compareTo(latencyThreshold) <= 0) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        release();
+    }
+
+    /**
+     * Completes a write that was rejected with a throttling response and shrinks the limit.
+     */
+    public synchronized void onThrottled() {
+        limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+        release();
+    }
+
+    /**
+     * Completes a write that failed for another reason than throttling, the limit stays unchanged.
+     */
+    public synchronized void onFailure() {
+        release();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void release() {
+        inFlight--;
+        notifyAll();
+    }
+}
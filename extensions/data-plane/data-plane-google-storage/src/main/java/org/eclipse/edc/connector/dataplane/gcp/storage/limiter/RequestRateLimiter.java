@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.limiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that limits the rate of write requests to a bucket. GCS scales the capacity of a bucket gradually with
+ * the load it sees, so the rate starts low and doubles after every ramp interval in which the requests used at least
+ * half of the rate without being throttled, up to the maximum rate. An interval of lighter load keeps the rate, a whole
+ * interval without requests drops it back to the initial rate. A throttling response halves the rate and restarts the
+ * ramp. The bucket holds at most one second worth of tokens.
+ */
+public class RequestRateLimiter {
+    private static final double MIN_RATE = 1;
+    private static final double RAMP_FACTOR = 2;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double SATURATION = 0.5;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double initialRate;
+    private final double maxRate;
+    private final long rampIntervalNanos;
+    private final LongSupplier nanoClock;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastAdjustment;
+    private long lastAcquisition;
+    private long acquisitions;
+
+    public RequestRateLimiter(double initialRate, double maxRate, Duration rampInterval) {
+        this(initialRate, maxRate, rampInterval, System::nanoTime);
+    }
+
+    RequestRateLimiter(double initialRate, double maxRate, Duration rampInterval, LongSupplier nanoClock) {
+        if (initialRate < MIN_RATE || maxRate < initialRate) {
+            throw new IllegalArgumentException("Rates must satisfy 1 <= initialRate <= maxRate");
+        }
+        this.initialRate = initialRate;
+        this.maxRate = maxRate;
+        this.rampIntervalNanos = rampInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.rate = initialRate;
+        this.tokens = initialRate;
+        this.lastRefill = nanoClock.getAsLong();
+        this.lastAdjustment = lastRefill;
+        this.lastAcquisition = lastRefill;
+    }
+
+    /**
+     * Blocks until a request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        long wait;
+        while ((wait = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available.
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens--;
+            acquisitions++;
+            lastAcquisition = lastRefill;
+            return 0;
+        }
+        return Math.max(1, (long) ((1 - tokens) * NANOS_PER_SECOND / rate));
+    }
+
+    /**
+     * Halves the rate after a throttling response and restarts the ramp.
+     */
+    public synchronized void onThrottled() {
+        refill();
+        rate = Math.max(MIN_RATE, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, rate);
+        restartRamp(nanoClock.getAsLong());
+    }
+
+    public synchronized double getRate() {
+        refill();
+        return rate;
+    }
+
+    private void refill() {
+        var now = nanoClock.getAsLong();
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+        lastRefill = now;
+        if (now - lastAcquisition >= rampIntervalNanos) {
+            // the capacity GCS scaled up for the bucket is not kept while it is idle
+            rate = Math.min(rate, initialRate);
+            tokens = Math.min(tokens, rate);
+            restartRamp(now);
+        } else if (now - lastAdjustment >= rampIntervalNanos) {
+            if (acquisitions >= rate * SATURATION * rampIntervalNanos / NANOS_PER_SECOND) {
+                rate = Math.min(maxRate, rate * RAMP_FACTOR);
+            }
+            restartRamp(now);
+        }
+    }
+
+    private void restartRamp(long now) {
+        lastAdjustment = now;
+        acquisitions = 0;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.naming;
+
+/**
+ * Maps the logical name of a part to the physical name of the blob it is written to.
+ */
+@FunctionalInterface
+public interface BlobNameStrategy {
+
+    /**
+     * Keeps the logical name.
+     */
+    BlobNameStrategy IDENTITY = logicalName -> logicalName;
+
+    /**
+     * Returns the name of the blob the part is written to.
+     *
+     * @param logicalName the name of the part, or the blob name of the destination if one is set
+     * @return the physical blob name
+     */
+    String physicalName(String logicalName);
+}
@@ -0,0 +1,74 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.naming;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds blob names from a template. {@code {name}} is replaced by the logical name, {@code {hash}} by the first
+ * characters of the hex encoded SHA-256 hash of the logical name ({@code {hash:N}} for N characters). Hash tokens spread
+ * sequentially named blobs, e.g. timestamps, over the key range of a bucket and so avoid write hotspots.
+ */
+public class TemplateBlobNameStrategy implements BlobNameStrategy {
+    public static final String NAME_TOKEN = "{name}";
+    public static final int DEFAULT_HASH_LENGTH = 8;
+    public static final int MAX_HASH_LENGTH = 64;
+
+    private static final Pattern HASH_TOKEN = Pattern.compile("\\{hash(?::(\\d+))?}");
+
+    private final String template;
+
+    public TemplateBlobNameStrategy(String template) {
+        if (!template.contains(NAME_TOKEN)) {
+            throw new IllegalArgumentException("Blob name template must contain " + NAME_TOKEN);
+        }
+        var matcher = HASH_TOKEN.matcher(template);
+        while (matcher.find()) {
+            var length = hashLength(matcher);
+            if (length < 1 || length > MAX_HASH_LENGTH) {
+                throw new IllegalArgumentException("Hash length must be between 1 and " + MAX_HASH_LENGTH + " but was " + length);
+            }
+        }
+        this.template = template;
+    }
+
+    /**
+     * Creates a strategy that prepends a shard prefix of the given number of hash characters to the logical name.
+     */
+    public static TemplateBlobNameStrategy hashPrefix(int length) {
+        return new TemplateBlobNameStrategy("{hash:" + length + "}/" + NAME_TOKEN);
+    }
+
+    @Override
+    public String physicalName(String logicalName) {
+        var hash = Hashing.sha256().hashString(logicalName, StandardCharsets.UTF_8).toString();
+        var matcher = HASH_TOKEN.matcher(template);
+        var physicalName = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(physicalName, Matcher.quoteReplacement(hash.substring(0, hashLength(matcher))));
+        }
+        matcher.appendTail(physicalName);
+        return physicalName.toString().replace(NAME_TOKEN, logicalName);
+    }
+
+    private int hashLength(Matcher matcher) {
+        var length = matcher.group(1);
+        return length == null ? DEFAULT_HASH_LENGTH : Integer.parseInt(length);
+    }
+}
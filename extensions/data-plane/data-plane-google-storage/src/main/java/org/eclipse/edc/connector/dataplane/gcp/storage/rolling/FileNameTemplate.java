@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the names of rolled files from a template. {@code {name}} is replaced by the base name and {@code {seq}} by the
+ * sequence number of the file, zero padded to five digits ({@code {seq:N}} for N digits).
+ */
+public class FileNameTemplate {
+    public static final String NAME_TOKEN = "{name}";
+    public static final int DEFAULT_SEQUENCE_WIDTH = 5;
+    public static final int MAX_SEQUENCE_WIDTH = 19;
+
+    private static final Pattern SEQUENCE_TOKEN = Pattern.compile("\\{seq(?::(\\d+))?}");
+
+    private final String template;
+
+    public FileNameTemplate(String template) {
+        var matcher = SEQUENCE_TOKEN.matcher(template);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("File name template must contain {seq}");
+        }
+        do {
+            var width = sequenceWidth(matcher);
+            if (width < 1 || width > MAX_SEQUENCE_WIDTH) {
+                throw new IllegalArgumentException("Sequence width must be between 1 and " + MAX_SEQUENCE_WIDTH + " but was " + width);
+            }
+        } while (matcher.find());
+        this.template = template;
+    }
+
+    /**
+     * Returns the default template for files of the given format.
+     */
+    public static FileNameTemplate defaultTemplate(RollingFormat format) {
+        return new FileNameTemplate(NAME_TOKEN + "-{seq}." + format.getExtension());
+    }
+
+    public String fileName(String name, int sequence) {
+        var matcher = SEQUENCE_TOKEN.matcher(template);
+        var fileName = new StringBuilder();
+        while (matcher.find()) {
+            var padded = String.format("%0" + sequenceWidth(matcher) + "d", sequence);
+            matcher.appendReplacement(fileName, padded);
+        }
+        matcher.appendTail(fileName);
+        return fileName.toString().replace(NAME_TOKEN, name);
+    }
+
+    private int sequenceWidth(Matcher matcher) {
+        var width = matcher.group(1);
+        return width == null ? DEFAULT_SEQUENCE_WIDTH : Integer.parseInt(width);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import java.time.Duration;
+
+/**
+ * Limits after which a rolling writer closes the current file and starts a new one, whichever is reached first.
+ */
+public class RollPolicy {
+    private final long maxBytes;
+    private final long maxRows;
+    private final Duration maxAge;
+
+    /**
+     * Creates a policy.
+     *
+     * @param maxBytes number of bytes written to a file after which it is rolled
+     * @param maxRows number of rows written to a file after which it is rolled
+     * @param maxAge time after the first row of a file after which it is rolled, null for no limit
+     */
+    public RollPolicy(long maxBytes, long maxRows, Duration maxAge) {
+        if (maxBytes < 1 || maxRows < 1) {
+            throw new IllegalArgumentException("maxBytes and maxRows must be at least 1");
+        }
+        this.maxBytes = maxBytes;
+        this.maxRows = maxRows;
+        this.maxAge = maxAge;
+    }
+
+    public boolean shouldRoll(long bytes, long rows, Duration age) {
+        return bytes >= maxBytes || rows >= maxRows || maxAge != null && age.compareTo(maxAge) >= 0;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+
+/**
+ * Writes rows into a sequence of Avro container files. Records are buffered into blocks of about the row group size
+ * before they are compressed and written, so a file exceeds the size limit by at most one row group.
+ */
+public class RollingAvroWriter extends RollingWriter {
+    private final Schema schema;
+    private final RowSchemaConverter converter;
+    private final int rowGroupSize;
+    private DataFileWriter<GenericRecord> writer;
+
+    public RollingAvroWriter(Schema schema, RowSchemaConverter converter, FileOpener fileOpener, RollPolicy rollPolicy, int rowGroupSize, Clock clock) {
+        super(fileOpener, rollPolicy, clock);
+        this.schema = schema;
+        this.converter = converter;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    @Override
+    protected void startFile(OutputStream output) throws IOException {
+        writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema));
+        writer.setCodec(CodecFactory.deflateCodec(CodecFactory.DEFAULT_DEFLATE_LEVEL));
+        writer.setSyncInterval(rowGroupSize);
+        writer.create(schema, output);
+    }
+
+    @Override
+    protected void writeRow(JsonNode row) throws IOException {
+        writer.append(converter.readRow(schema, row));
+    }
+
+    @Override
+    protected void finishFile() throws IOException {
+        try {
+            writer.close();
+        } finally {
+            writer = null;
+        }
+    }
+}
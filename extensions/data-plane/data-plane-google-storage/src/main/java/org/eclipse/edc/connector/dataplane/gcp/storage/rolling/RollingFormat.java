@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import java.util.Arrays;
+
+/**
+ * Formats of the files rows are rolled into.
+ */
+public enum RollingFormat {
+    AVRO("avro", "avro/binary", true),
+    NDJSON("ndjson", "application/x-ndjson", false),
+    CSV("csv", "text/csv", true);
+
+    private final String extension;
+    private final String contentType;
+    private final boolean schemaRequired;
+
+    RollingFormat(String extension, String contentType, boolean schemaRequired) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.schemaRequired = schemaRequired;
+    }
+
+    /**
+     * Returns the format with the given name, case insensitive.
+     *
+     * @return the format or null if there is none with that name.
+     */
+    public static RollingFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Whether rows can only be written once the schema part has been read.
+     */
+    public boolean isSchemaRequired() {
+        return schemaRequired;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+
+/**
+ * Writes rows as lines of text, e.g. NDJSON or CSV, into a sequence of files that each start with an optional header.
+ */
+public class RollingTextWriter extends RollingWriter {
+    private final byte[] header;
+    private final LineEncoder lineEncoder;
+    private OutputStream output;
+
+    public RollingTextWriter(byte[] header, LineEncoder lineEncoder, FileOpener fileOpener, RollPolicy rollPolicy, Clock clock) {
+        super(fileOpener, rollPolicy, clock);
+        this.header = header;
+        this.lineEncoder = lineEncoder;
+    }
+
+    @Override
+    protected void startFile(OutputStream output) throws IOException {
+        this.output = output;
+        if (header != null) {
+            output.write(header);
+        }
+    }
+
+    @Override
+    protected void writeRow(JsonNode row) throws IOException {
+        output.write(lineEncoder.encode(row));
+    }
+
+    @Override
+    protected void finishFile() throws IOException {
+        try {
+            output.close();
+        } finally {
+            output = null;
+        }
+    }
+
+    /**
+     * Encodes a row into a line including its line terminator.
+     */
+    @FunctionalInterface
+    public interface LineEncoder {
+        byte[] encode(JsonNode row) throws IOException;
+    }
+}
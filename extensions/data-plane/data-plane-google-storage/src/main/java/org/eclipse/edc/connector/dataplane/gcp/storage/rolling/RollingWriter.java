@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.CountingOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Appends rows to a sequence of files, a file is rolled over once the roll policy says so. The age of a file is checked
+ * whenever a row is appended. Not thread safe.
+ */
+public abstract class RollingWriter implements AutoCloseable {
+    private final FileOpener fileOpener;
+    private final RollPolicy rollPolicy;
+    private final Clock clock;
+    private CountingOutputStream output;
+    private long rows;
+    private Instant openedAt;
+    private int sequence;
+
+    protected RollingWriter(FileOpener fileOpener, RollPolicy rollPolicy, Clock clock) {
+        this.fileOpener = fileOpener;
+        this.rollPolicy = rollPolicy;
+        this.clock = clock;
+    }
+
+    /**
+     * Appends the row to the current file, opening a new one if none is open.
+     */
+    public void append(JsonNode row) throws IOException {
+        if (output != null && rollPolicy.shouldRoll(output.getCount(), rows, Duration.between(openedAt, clock.instant()))) {
+            closeFile();
+        }
+        if (output == null) {
+            output = new CountingOutputStream(fileOpener.open(sequence++));
+            rows = 0;
+            openedAt = clock.instant();
+            startFile(output);
+        }
+        writeRow(row);
+        rows++;
+        if (rollPolicy.shouldRoll(output.getCount(), rows, Duration.between(openedAt, clock.instant()))) {
+            closeFile();
+        }
+    }
+
+    /**
+     * Returns the number of files started so far.
+     */
+    public int getFileCount() {
+        return sequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output != null) {
+            closeFile();
+        }
+    }
+
+    /**
+     * Starts a new file on the output, e.g. by writing a header.
+     */
+    protected abstract void startFile(OutputStream output) throws IOException;
+
+    /**
+     * Writes a row to the current file.
+     */
+    protected abstract void writeRow(JsonNode row) throws IOException;
+
+    /**
+     * Finishes the current file and closes its output.
+     */
+    protected abstract void finishFile() throws IOException;
+
+    private void closeFile() throws IOException {
+        try {
+            finishFile();
+        } finally {
+            output = null;
+        }
+    }
+
+    /**
+     * Opens the output of the file with the given sequence number.
+     */
+    @FunctionalInterface
+    public interface FileOpener {
+        OutputStream open(int sequence) throws IOException;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts the row oriented parts of a tabular source, a {@code schema} part that maps column names to BigQuery types
+ * followed by parts with one or more JSON objects per row, e.g. NDJSON chunks, into Avro records, CSV lines or NDJSON lines. Avro columns are nullable,
+ * integer, float and boolean columns keep their type and all other columns are written as strings so no precision is
+ * lost.
+ */
+public class RowSchemaConverter {
+    private static final String RECORD_NAME = "Row";
+    private static final String RECORD_NAMESPACE = "org.eclipse.edc.gcp.storage";
+    private static final String FIELDS = "fields";
+    private static final String CSV_LINE_SEPARATOR = "\r\n";
+
+    private final ObjectMapper objectMapper;
+
+    public RowSchemaConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the schema part, columns are ordered by name for a stable file schema.
+     */
+    public Schema readSchema(InputStream input) throws IOException {
+        var fields = objectMapper.readTree(input).path(FIELDS);
+        if (!fields.isObject()) {
+            throw new IOException("Schema part has no fields");
+        }
+        var columns = new ArrayList<Map.Entry<String, JsonNode>>();
+        fields.fields().forEachRemaining(columns::add);
+        columns.sort(Map.Entry.comparingByKey());
+
+        var builder = SchemaBuilder.record(RECORD_NAME).namespace(RECORD_NAMESPACE).fields();
+        for (var column : columns) {
+            var type = builder.name(column.getKey()).type().unionOf().nullType().and();
+            var columnType = switch (column.getValue().asText()) {
+                case "INTEGER", "INT64" -> type.longType();
+                case "FLOAT", "FLOAT64" -> type.doubleType();
+                case "BOOLEAN", "BOOL" -> type.booleanType();
+                default -> type.stringType();
+            };
+            columnType.endUnion().nullDefault();
+        }
+        return builder.endRecord();
+    }
+
+    /**
+     * Reads the rows of a row part one at a time. The rows are JSON objects separated by whitespace, a part with a
+     * single object holds a single row.
+     */
+    public Iterator<JsonNode> readRows(InputStream input) throws IOException {
+        return objectMapper.readerFor(JsonNode.class).readValues(input);
+    }
+
+    /**
+     * Converts a row, values may be typed JSON values or their string representation. Properties that are not a
+     * column of the schema are ignored.
+     */
+    public GenericRecord readRow(Schema schema, JsonNode row) throws IOException {
+        var record = new GenericData.Record(schema);
+        for (var field : schema.getFields()) {
+            var value = row.get(field.name());
+            if (value == null || value.isNull()) {
+                continue;
+            }
+            var type = field.schema().getTypes().get(1).getType();
+            try {
+                record.put(field.pos(), switch (type) {
+                    case LONG -> value.isNumber() ? value.asLong() : Long.parseLong(value.asText());
+                    case DOUBLE -> value.isNumber() ? value.asDouble() : Double.parseDouble(value.asText());
+                    case BOOLEAN -> value.isBoolean() ? value.asBoolean() : Boolean.parseBoolean(value.asText());
+                    default -> value.isTextual() ? value.asText() : value.toString();
+                });
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid value of column " + field.name() + ": " + value.asText(), e);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Returns the CSV header line with the column names of the schema.
+     */
+    public byte[] csvHeader(Schema schema) {
+        return schema.getFields().stream()
+                .map(field -> quoteCsv(field.name()))
+                .collect(Collectors.joining(",", "", CSV_LINE_SEPARATOR))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a row into a CSV line as described in RFC 4180, null values are left empty.
+     */
+    public byte[] toCsvLine(Schema schema, JsonNode row) {
+        return schema.getFields().stream()
+                .map(field -> {
+                    var value = row.get(field.name());
+                    if (value == null || value.isNull()) {
+                        return "";
+                    }
+                    return quoteCsv(value.isTextual() ? value.asText() : value.toString());
+                })
+                .collect(Collectors.joining(",", "", CSV_LINE_SEPARATOR))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a row into a compact single line JSON document.
+     */
+    public byte[] toJsonLine(JsonNode row) throws IOException {
+        var line = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(row);
+        var terminated = new byte[line.length + 1];
+        System.arraycopy(line, 0, terminated, 0, line.length);
+        terminated[line.length] = '\n';
+        return terminated;
+    }
+
+    private String quoteCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.spool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spools data to temporary files in a local directory, so slow sources do not hold upload sessions open. The disk
+ * space taken by all spool files together is capped, space is reserved chunk by chunk while spooling and released when
+ * a spool file is closed.
+ */
+public class DiskSpool {
+    private static final String PREFIX = "gcs-spool-";
+    private static final String SUFFIX = ".part";
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final Path directory;
+    private final long capacity;
+    private final AtomicLong used = new AtomicLong();
+
+    public DiskSpool(Path directory, long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Spool capacity must be positive");
+        }
+        this.directory = directory;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Tells whether data of the given size currently fits into the spool.
+     */
+    public boolean hasCapacity(long size) {
+        return used.get() + size <= capacity;
+    }
+
+    /**
+     * Copies the input into a new spool file and closes it. The file is deleted if spooling fails, e.g. because the
+     * capacity of the spool is exhausted.
+     */
+    public SpoolFile spool(InputStream input) throws IOException {
+        Files.createDirectories(directory);
+        var path = Files.createTempFile(directory, PREFIX, SUFFIX);
+        var size = 0L;
+        try (input; var source = Channels.newChannel(input); var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            while (true) {
+                var reserved = reserve(TRANSFER_CHUNK_SIZE);
+                if (reserved == 0) {
+                    if (input.read() == -1) {
+                        break;
+                    }
+                    throw new IOException("Spool capacity of " + capacity + " bytes in " + directory + " exhausted");
+                }
+                var transferred = channel.transferFrom(source, size, reserved);
+                release(reserved - transferred);
+                size += transferred;
+                if (transferred == 0) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            release(size);
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new SpoolFile(path, size, this);
+    }
+
+    public long getUsed() {
+        return used.get();
+    }
+
+    void release(long size) {
+        used.addAndGet(-size);
+    }
+
+    /**
+     * Reserves up to the requested space, returns zero if the spool is full.
+     */
+    private long reserve(long size) {
+        while (true) {
+            var current = used.get();
+            var reserved = Math.max(0, Math.min(size, capacity - current));
+            if (used.compareAndSet(current, current + reserved)) {
+                return reserved;
+            }
+        }
+    }
+}
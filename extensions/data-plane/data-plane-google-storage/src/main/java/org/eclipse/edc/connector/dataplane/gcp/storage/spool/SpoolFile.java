@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.spool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Data spooled to a local file, can be read any number of times and is deleted when closed.
+ */
+public class SpoolFile implements AutoCloseable {
+    private static final long MAPPING_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final Path path;
+    private final long size;
+    private final DiskSpool spool;
+    private boolean closed;
+
+    SpoolFile(Path path, long size, DiskSpool spool) {
+        this.path = path;
+        this.size = size;
+        this.spool = spool;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Opens a stream that reads the file through memory mapped windows, so the data is copied straight from the page
+     * cache.
+     */
+    public InputStream openStream() throws IOException {
+        return new MappedInputStream(FileChannel.open(path, StandardOpenOption.READ), size);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            Files.deleteIfExists(path);
+        } finally {
+            spool.release(size);
+        }
+    }
+
+    private static class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+            if (window == null || !window.hasRemaining()) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_WINDOW_SIZE, size - position));
+            }
+            var count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+}
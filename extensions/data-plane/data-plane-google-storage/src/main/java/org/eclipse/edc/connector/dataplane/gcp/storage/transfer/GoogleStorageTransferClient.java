@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.transfer;
+
+import com.google.longrunning.Operation;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.storagetransfer.v1.proto.StorageTransferServiceClient;
+import com.google.storagetransfer.v1.proto.TransferProto;
+import com.google.storagetransfer.v1.proto.TransferTypes;
+import org.eclipse.edc.gcp.common.GcpException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Runs transfers through the Storage Transfer Service API. The transfer service agent of the project needs read access
+ * to the source and write access to the destination bucket.
+ */
+public class GoogleStorageTransferClient implements StorageTransferClient, AutoCloseable {
+    private final StorageTransferServiceClient client;
+
+    public GoogleStorageTransferClient(StorageTransferServiceClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public String startTransfer(StorageTransferRequest request) {
+        var transferSpec = TransferTypes.TransferSpec.newBuilder()
+                .setGcsDataSource(TransferTypes.GcsData.newBuilder()
+                        .setBucketName(request.getSourceBucket())
+                        .setPath(request.getSourcePrefix()))
+                .setGcsDataSink(TransferTypes.GcsData.newBuilder()
+                        .setBucketName(request.getDestinationBucket())
+                        .setPath(request.getDestinationPrefix()))
+                .setTransferOptions(TransferTypes.TransferOptions.newBuilder()
+                        .setOverwriteWhen(TransferTypes.TransferOptions.OverwriteWhen.DIFFERENT));
+        // a job without schedule only runs when it is started explicitly
+        var job = client.createTransferJob(TransferProto.CreateTransferJobRequest.newBuilder()
+                .setTransferJob(TransferTypes.TransferJob.newBuilder()
+                        .setProjectId(request.getProjectId())
+                        .setDescription(request.getDescription())
+                        .setTransferSpec(transferSpec)
+                        .setStatus(TransferTypes.TransferJob.Status.ENABLED))
+                .build());
+        try {
+            var operation = client.runTransferJobCallable().call(TransferProto.RunTransferJobRequest.newBuilder()
+                    .setJobName(job.getName())
+                    .setProjectId(request.getProjectId())
+                    .build());
+            return operation.getName();
+        } catch (RuntimeException e) {
+            deleteJob(job.getName(), request.getProjectId());
+            throw e;
+        }
+    }
+
+    @Override
+    public TransferProgress getProgress(String operationName) {
+        var operation = client.getOperationsClient().getOperation(operationName);
+        var metadata = metadata(operation);
+        var state = switch (metadata.getStatus()) {
+            case SUCCESS -> TransferProgress.State.SUCCEEDED;
+            case FAILED -> TransferProgress.State.FAILED;
+            case ABORTED -> TransferProgress.State.ABORTED;
+            default -> TransferProgress.State.RUNNING;
+        };
+        var counters = metadata.getCounters();
+        return new TransferProgress(state, counters.getObjectsCopiedToSink(), counters.getBytesCopiedToSink(),
+                counters.getObjectsFromSourceFailed(), errorDetail(operation.hasError() ? operation.getError().getMessage() : null, metadata));
+    }
+
+    @Override
+    public void cancel(String operationName) {
+        client.getOperationsClient().cancelOperation(operationName);
+    }
+
+    @Override
+    public void deleteJob(String operationName) {
+        var metadata = metadata(client.getOperationsClient().getOperation(operationName));
+        deleteJob(metadata.getTransferJobName(), metadata.getProjectId());
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private void deleteJob(String jobName, String projectId) {
+        client.updateTransferJob(TransferProto.UpdateTransferJobRequest.newBuilder()
+                .setJobName(jobName)
+                .setProjectId(projectId)
+                .setTransferJob(TransferTypes.TransferJob.newBuilder().setStatus(TransferTypes.TransferJob.Status.DELETED))
+                .setUpdateTransferJobFieldMask(FieldMask.newBuilder().addPaths("status"))
+                .build());
+    }
+
+    private TransferTypes.TransferOperation metadata(Operation operation) {
+        try {
+            return operation.getMetadata().unpack(TransferTypes.TransferOperation.class);
+        } catch (InvalidProtocolBufferException e) {
+            throw new GcpException("Unexpected metadata of transfer operation " + operation.getName(), e);
+        }
+    }
+
+    private String errorDetail(String operationError, TransferTypes.TransferOperation metadata) {
+        if (metadata.getErrorBreakdownsCount() == 0) {
+            return operationError;
+        }
+        var breakdown = metadata.getErrorBreakdownsList().stream()
+                .map(summary -> summary.getErrorCode() + " (" + summary.getErrorCount() + ")")
+                .collect(Collectors.joining(", "));
+        return operationError != null ? operationError + ": " + breakdown : breakdown;
+    }
+}
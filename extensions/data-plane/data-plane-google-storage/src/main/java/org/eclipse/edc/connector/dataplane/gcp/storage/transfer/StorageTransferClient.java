@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.transfer;
+
+/**
+ * Minimal view on the Storage Transfer Service the data plane needs to hand a bucket to bucket copy over to GCS.
+ */
+public interface StorageTransferClient {
+
+    /**
+     * Creates a one-off transfer job for the request and runs it.
+     *
+     * @return the name of the started transfer operation.
+     */
+    String startTransfer(StorageTransferRequest request);
+
+    /**
+     * Returns the current progress of a transfer operation.
+     */
+    TransferProgress getProgress(String operationName);
+
+    /**
+     * Cancels a running transfer operation, objects copied so far stay in the destination.
+     */
+    void cancel(String operationName);
+
+    /**
+     * Deletes the transfer job that started the operation, so it cannot run again.
+     */
+    void deleteJob(String operationName);
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.transfer;
+
+/**
+ * Copy of all objects under a prefix of one bucket to a prefix of another bucket.
+ */
+public class StorageTransferRequest {
+    private final String projectId;
+    private final String description;
+    private final String sourceBucket;
+    private final String sourcePrefix;
+    private final String destinationBucket;
+    private final String destinationPrefix;
+
+    public StorageTransferRequest(String projectId, String description, String sourceBucket, String sourcePrefix,
+                                  String destinationBucket, String destinationPrefix) {
+        this.projectId = projectId;
+        this.description = description;
+        this.sourceBucket = sourceBucket;
+        this.sourcePrefix = sourcePrefix;
+        this.destinationBucket = destinationBucket;
+        this.destinationPrefix = destinationPrefix;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getSourceBucket() {
+        return sourceBucket;
+    }
+
+    /**
+     * Returns the prefix of the copied objects, empty for the whole bucket or ending with a slash.
+     */
+    public String getSourcePrefix() {
+        return sourcePrefix;
+    }
+
+    public String getDestinationBucket() {
+        return destinationBucket;
+    }
+
+    /**
+     * Returns the prefix the copied objects are written under, empty or ending with a slash.
+     */
+    public String getDestinationPrefix() {
+        return destinationPrefix;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.transfer;
+
+/**
+ * Snapshot of the state and counters of a transfer operation.
+ */
+public class TransferProgress {
+    private final State state;
+    private final long objectsCopied;
+    private final long bytesCopied;
+    private final long objectsFailed;
+    private final String errorDetail;
+
+    public TransferProgress(State state, long objectsCopied, long bytesCopied, long objectsFailed, String errorDetail) {
+        this.state = state;
+        this.objectsCopied = objectsCopied;
+        this.bytesCopied = bytesCopied;
+        this.objectsFailed = objectsFailed;
+        this.errorDetail = errorDetail;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getObjectsCopied() {
+        return objectsCopied;
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    public long getObjectsFailed() {
+        return objectsFailed;
+    }
+
+    /**
+     * Returns a description of the errors of a failed operation, or null.
+     */
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    public boolean isDone() {
+        return state != State.RUNNING;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %d objects (%d bytes) copied, %d failed", state, objectsCopied, bytesCopied, objectsFailed);
+    }
+
+    public enum State {
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        ABORTED
+    }
+}
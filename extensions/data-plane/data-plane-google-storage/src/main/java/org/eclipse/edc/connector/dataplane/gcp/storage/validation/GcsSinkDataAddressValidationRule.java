@@ -14,25 +14,197 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.storage.validation;
 
+import org.eclipse.edc.connector.dataplane.gcp.storage.naming.TemplateBlobNameStrategy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.FileNameTemplate;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingFormat;
 import org.eclipse.edc.connector.dataplane.util.validation.CompositeValidationRule;
 import org.eclipse.edc.connector.dataplane.util.validation.EmptyValueValidationRule;
 import org.eclipse.edc.connector.dataplane.util.validation.ValidationRule;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.types.domain.DataAddress;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.BLOB_NAME_HASH_PREFIX_LENGTH;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.BLOB_NAME_TEMPLATE;
 import static org.eclipse.edc.gcp.storage.GcsStoreSchema.BUCKET_NAME;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.BUCKET_NAMES;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.COMPRESSION;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.COMPRESSION_GZIP;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.COMPRESSION_LEVEL;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.CONTENT_ADDRESSED;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.FILE_NAME_TEMPLATE;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.IF_EXISTS;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.IF_EXISTS_FAIL;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.IF_EXISTS_SKIP_IDENTICAL;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.MAX_FILE_AGE_SECONDS;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.MAX_FILE_ROWS;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.OUTPUT_FORMAT;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.ROW_GROUP_SIZE;
+import static org.eclipse.edc.gcp.storage.GcsStoreSchema.TARGET_FILE_SIZE;
 
 public class GcsSinkDataAddressValidationRule implements ValidationRule<DataAddress> {
+    // bounds of the sync interval of Avro container files
+    private static final int MIN_ROW_GROUP_SIZE = 32;
+    private static final int MAX_ROW_GROUP_SIZE = 1 << 30;
+
     private final CompositeValidationRule<DataAddress> mandatoryPropertyValidationRule = new CompositeValidationRule<>(
             List.of(
                     new EmptyValueValidationRule(BUCKET_NAME)
             )
     );
+    private final int maxBuckets;
+
+    public GcsSinkDataAddressValidationRule(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
 
     @Override
     public Result<Void> apply(DataAddress dataAddress) {
-        return mandatoryPropertyValidationRule.apply(dataAddress);
+        var result = validateBuckets(dataAddress);
+        if (result.failed()) {
+            return result;
+        }
+        result = validateCompression(dataAddress);
+        if (result.failed()) {
+            return result;
+        }
+        result = validateBlobNaming(dataAddress);
+        if (result.failed()) {
+            return result;
+        }
+        result = validateIfExists(dataAddress);
+        if (result.failed()) {
+            return result;
+        }
+        return validateOutputFormat(dataAddress);
+    }
+
+    /**
+     * A fan-out lists its destinations in bucket names, otherwise the bucket name is mandatory. The number of bucket
+     * names is bounded, it sizes the pool fanned-out uploads run on.
+     */
+    private Result<Void> validateBuckets(DataAddress dataAddress) {
+        var bucketNames = dataAddress.getStringProperty(BUCKET_NAMES);
+        if (bucketNames == null || bucketNames.isBlank()) {
+            return mandatoryPropertyValidationRule.apply(dataAddress);
+        }
+        if (Arrays.stream(bucketNames.split(",")).anyMatch(String::isBlank)) {
+            return Result.failure("Bucket names must not contain empty entries: " + bucketNames);
+        }
+        var bucketCount = bucketNames.split(",").length;
+        if (bucketCount > maxBuckets) {
+            return Result.failure(String.format("At most %d bucket names are supported but %d were given", maxBuckets, bucketCount));
+        }
+        return Result.success();
+    }
+
+    private Result<Void> validateCompression(DataAddress dataAddress) {
+        var compression = dataAddress.getStringProperty(COMPRESSION);
+        if (compression != null && !compression.isBlank() && !COMPRESSION_GZIP.equalsIgnoreCase(compression)) {
+            return Result.failure("Unsupported compression " + compression + ", only " + COMPRESSION_GZIP + " is supported");
+        }
+        var compressionLevel = dataAddress.getStringProperty(COMPRESSION_LEVEL);
+        if (compressionLevel != null) {
+            try {
+                var level = Integer.parseInt(compressionLevel);
+                if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+                    return Result.failure("Compression level must be between 0 and 9 but was " + level);
+                }
+            } catch (NumberFormatException e) {
+                return Result.failure("Compression level must be a number but was " + compressionLevel);
+            }
+        }
+        return Result.success();
+    }
+
+    private Result<Void> validateBlobNaming(DataAddress dataAddress) {
+        var template = dataAddress.getStringProperty(BLOB_NAME_TEMPLATE);
+        if (template != null) {
+            try {
+                new TemplateBlobNameStrategy(template);
+            } catch (IllegalArgumentException e) {
+                return Result.failure("Invalid blob name template " + template + ": " + e.getMessage());
+            }
+        }
+        var hashPrefixLength = dataAddress.getStringProperty(BLOB_NAME_HASH_PREFIX_LENGTH);
+        if (hashPrefixLength != null) {
+            try {
+                var length = Integer.parseInt(hashPrefixLength);
+                if (length < 1 || length > TemplateBlobNameStrategy.MAX_HASH_LENGTH) {
+                    return Result.failure("Hash prefix length must be between 1 and " + TemplateBlobNameStrategy.MAX_HASH_LENGTH + " but was " + length);
+                }
+            } catch (NumberFormatException e) {
+                return Result.failure("Hash prefix length must be a number but was " + hashPrefixLength);
+            }
+        }
+        return Result.success();
+    }
+
+    private Result<Void> validateIfExists(DataAddress dataAddress) {
+        var ifExists = dataAddress.getStringProperty(IF_EXISTS);
+        if (ifExists == null || ifExists.isBlank() || IF_EXISTS_FAIL.equalsIgnoreCase(ifExists)) {
+            return Result.success();
+        }
+        if (!IF_EXISTS_SKIP_IDENTICAL.equalsIgnoreCase(ifExists)) {
+            return Result.failure("Unsupported value " + ifExists + " of " + IF_EXISTS + ", supported are " + IF_EXISTS_FAIL + " and " + IF_EXISTS_SKIP_IDENTICAL);
+        }
+        var outputFormat = dataAddress.getStringProperty(OUTPUT_FORMAT);
+        if (outputFormat != null && !outputFormat.isBlank()) {
+            return Result.failure("Rolling files of output format " + outputFormat + " are always written anew and cannot be combined with " + IF_EXISTS);
+        }
+        return Result.success();
+    }
+
+    private Result<Void> validateOutputFormat(DataAddress dataAddress) {
+        var outputFormat = dataAddress.getStringProperty(OUTPUT_FORMAT);
+        if (outputFormat == null || outputFormat.isBlank()) {
+            return Result.success();
+        }
+        var rollingFormat = RollingFormat.fromName(outputFormat);
+        if (rollingFormat == null) {
+            return Result.failure("Unsupported output format " + outputFormat + ", supported are " + Arrays.stream(RollingFormat.values())
+                    .map(RollingFormat::getExtension)
+                    .collect(Collectors.joining(", ")));
+        }
+        if (Boolean.parseBoolean(dataAddress.getStringProperty(CONTENT_ADDRESSED))) {
+            return Result.failure("Output format " + outputFormat + " cannot be combined with " + CONTENT_ADDRESSED);
+        }
+        if (rollingFormat == RollingFormat.AVRO && dataAddress.getStringProperty(COMPRESSION) != null) {
+            return Result.failure("Avro files are compressed block by block and cannot be combined with " + COMPRESSION);
+        }
+        var fileNameTemplate = dataAddress.getStringProperty(FILE_NAME_TEMPLATE);
+        if (fileNameTemplate != null) {
+            try {
+                new FileNameTemplate(fileNameTemplate);
+            } catch (IllegalArgumentException e) {
+                return Result.failure("Invalid file name template " + fileNameTemplate + ": " + e.getMessage());
+            }
+        }
+        return Stream.of(TARGET_FILE_SIZE, MAX_FILE_ROWS, MAX_FILE_AGE_SECONDS)
+                .map(property -> validateNumber(dataAddress, property, 1, Long.MAX_VALUE))
+                .filter(Result::failed)
+                .findFirst()
+                .orElseGet(() -> validateNumber(dataAddress, ROW_GROUP_SIZE, MIN_ROW_GROUP_SIZE, MAX_ROW_GROUP_SIZE));
+    }
+
+    private Result<Void> validateNumber(DataAddress dataAddress, String property, long min, long max) {
+        var value = dataAddress.getStringProperty(property);
+        if (value == null) {
+            return Result.success();
+        }
+        try {
+            var number = Long.parseLong(value);
+            if (number < min || number > max) {
+                return Result.failure(property + " must be between " + min + " and " + max + " but was " + number);
+            }
+        } catch (NumberFormatException e) {
+            return Result.failure(property + " must be a number but was " + value);
+        }
+        return Result.success();
     }
 }
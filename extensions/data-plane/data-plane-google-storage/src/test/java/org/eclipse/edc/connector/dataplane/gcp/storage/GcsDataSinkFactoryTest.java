@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
+import org.eclipse.edc.gcp.iam.IamService;
 import org.eclipse.edc.gcp.storage.GcsStoreSchema;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.security.Vault;
@@ -27,6 +28,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,10 +38,14 @@ import static org.mockito.Mockito.mock;
 class GcsDataSinkFactoryTest {
 
     private final GcsDataSinkFactory factory = new GcsDataSinkFactory(
+            mock(ExecutorService.class),
+            mock(ExecutorService.class),
             mock(ExecutorService.class),
             mock(Monitor.class),
             mock(Vault.class),
-            new TypeManager()
+            new TypeManager(),
+            mock(IamService.class),
+            GcsSinkConfiguration.Builder.newInstance().build()
     );
 
     @Test
@@ -97,6 +104,183 @@ class GcsDataSinkFactoryTest {
         assertThat(result.failed()).isTrue();
     }
 
+    @ParameterizedTest
+    @MethodSource("invalidCompressions")
+    void validate_shouldFailIfCompressionIsInvalid(String compression, String compressionLevel) {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(GcsStoreSchema.COMPRESSION, compression)
+                .property(GcsStoreSchema.COMPRESSION_LEVEL, compressionLevel)
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void validate_shouldSucceedIfCompressionIsGzip() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(GcsStoreSchema.COMPRESSION, "gzip")
+                .property(GcsStoreSchema.COMPRESSION_LEVEL, "9")
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_shouldSucceedIfBucketNamesAreGivenInsteadOfBucketName() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAMES, "bucket-a, bucket-b")
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_shouldFailIfBucketNamesContainEmptyEntry() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAMES, "bucket-a,,bucket-b")
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void validate_shouldFailIfBucketNamesExceedMaxBuckets() {
+        var bucketNames = IntStream.rangeClosed(0, GcsSinkConfiguration.DEFAULT_MAX_BUCKETS)
+                .mapToObj(i -> "bucket-" + i)
+                .collect(Collectors.joining(","));
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAMES, bucketNames)
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("At most " + GcsSinkConfiguration.DEFAULT_MAX_BUCKETS);
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidBlobNamings")
+    void validate_shouldFailIfBlobNamingIsInvalid(String property, String value) {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(property, value)
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void validate_shouldSucceedIfExistingBlobsAreSkippedWhenIdentical() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(GcsStoreSchema.IF_EXISTS, GcsStoreSchema.IF_EXISTS_SKIP_IDENTICAL)
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_shouldFailIfExistsModeIsUnknown() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(GcsStoreSchema.IF_EXISTS, "overwrite")
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void validate_shouldSucceedIfRollingFilesAreWrittenToSeveralBuckets() {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAMES, "bucket-a,bucket-b")
+                .property(GcsStoreSchema.OUTPUT_FORMAT, "ndjson")
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidOutputFormats")
+    void validate_shouldFailIfOutputFormatIsInvalid(String property, String value) {
+        var destination = DataAddress.Builder
+                .newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "validBucketName")
+                .property(GcsStoreSchema.OUTPUT_FORMAT, "avro")
+                .property(property, value)
+                .build();
+
+        var result = factory.validateRequest(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    private static Stream<Arguments> invalidOutputFormats() {
+        return Stream.of(
+                Arguments.of(GcsStoreSchema.OUTPUT_FORMAT, "parquet"),
+                Arguments.of(GcsStoreSchema.COMPRESSION, "gzip"),
+                Arguments.of(GcsStoreSchema.TARGET_FILE_SIZE, "0"),
+                Arguments.of(GcsStoreSchema.ROW_GROUP_SIZE, "16"),
+                Arguments.of(GcsStoreSchema.MAX_FILE_ROWS, "0"),
+                Arguments.of(GcsStoreSchema.MAX_FILE_AGE_SECONDS, "soon"),
+                Arguments.of(GcsStoreSchema.FILE_NAME_TEMPLATE, "{name}.avro"),
+                Arguments.of(GcsStoreSchema.IF_EXISTS, GcsStoreSchema.IF_EXISTS_SKIP_IDENTICAL)
+        );
+    }
+
+    private static Stream<Arguments> invalidBlobNamings() {
+        return Stream.of(
+                Arguments.of(GcsStoreSchema.BLOB_NAME_TEMPLATE, "{hash}"),
+                Arguments.of(GcsStoreSchema.BLOB_NAME_TEMPLATE, "{hash:65}/{name}"),
+                Arguments.of(GcsStoreSchema.BLOB_NAME_HASH_PREFIX_LENGTH, "0"),
+                Arguments.of(GcsStoreSchema.BLOB_NAME_HASH_PREFIX_LENGTH, "short")
+        );
+    }
+
+    private static Stream<Arguments> invalidCompressions() {
+        return Stream.of(
+                Arguments.of("zip", "5"),
+                Arguments.of("gzip", "10"),
+                Arguments.of("gzip", "fast")
+        );
+    }
+
     private static Stream<Arguments> invalidInputs() {
         return Stream.of(
                 Arguments.of(""),
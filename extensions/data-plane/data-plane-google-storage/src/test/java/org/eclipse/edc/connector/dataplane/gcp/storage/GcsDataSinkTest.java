@@ -0,0 +1,906 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.CopyWriter;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.eclipse.edc.connector.dataplane.gcp.storage.checksum.ChecksummedPart;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.AdaptiveConcurrencyLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.limiter.RequestRateLimiter;
+import org.eclipse.edc.connector.dataplane.gcp.storage.naming.TemplateBlobNameStrategy;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.FileNameTemplate;
+import org.eclipse.edc.connector.dataplane.gcp.storage.rolling.RollingFormat;
+import org.eclipse.edc.connector.dataplane.gcp.storage.spool.DiskSpool;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GcsDataSinkTest {
+
+    private static final String BUCKET_NAME = "test-bucket";
+    private static final int THRESHOLD = 16;
+    private static final long GENERATION = 7;
+
+    private final ExecutorService uploadExecutorService = Executors.newFixedThreadPool(4);
+    private final ExecutorService branchExecutorService = Executors.newCachedThreadPool();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(4, 8, Duration.ofSeconds(1));
+    @TempDir
+    Path spoolDirectory;
+    private Storage storageMock;
+    private final Map<BlobId, ByteArrayOutputStream> sessions = new ConcurrentHashMap<>();
+    private ByteArrayOutputStream written;
+    private WriteChannel writeChannel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageMock = mock(Storage.class);
+        written = new ByteArrayOutputStream();
+        when(storageMock.writer(any(BlobInfo.class), any(Storage.BlobWriteOption[].class))).thenAnswer(invocation -> {
+            var session = new ByteArrayOutputStream();
+            sessions.put(invocation.<BlobInfo>getArgument(0).getBlobId(), session);
+            writeChannel = writeChannel(session);
+            return writeChannel;
+        });
+        // a stored blob carries the checksum of the content written into its session, uploads run concurrently
+        when(storageMock.get(any(BlobId.class), any(Storage.BlobGetOption[].class))).thenAnswer(invocation -> {
+            var session = sessions.get(invocation.<BlobId>getArgument(0));
+            var crc32c = session != null ? crc32c(session.toByteArray()) : null;
+            return mock(Blob.class, call -> "getCrc32c".equals(call.getMethod().getName()) ? crc32c : RETURNS_DEFAULTS.answer(call));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadExecutorService.shutdownNow();
+        branchExecutorService.shutdownNow();
+    }
+
+    @Test
+    void transferParts_smallPartIsUploadedWithSingleRequest() {
+        var content = "small".getBytes();
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+        verify(storageMock, never()).writer(any(BlobInfo.class), any(Storage.BlobWriteOption.class));
+    }
+
+    @Test
+    void transferParts_smallPartOfUnknownSizeIsUploadedWithSingleRequest() {
+        var content = "small".getBytes();
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+    }
+
+    @Test
+    void transferParts_largePartIsUploadedWithResumableSession() {
+        var content = "a content larger than the threshold".getBytes();
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).writer(blob("blob"), eq(Storage.BlobWriteOption.doesNotExist()));
+        verify(storageMock, never()).create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class));
+        assertThat(written.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void transferParts_largePartOfUnknownSizeIsUploadedWithResumableSession() {
+        var content = "a content larger than the threshold".getBytes();
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class));
+        assertThat(written.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void transferParts_abandonsResumableSessionWhenSourceFails() throws IOException {
+        var content = "a content larger than the threshold".getBytes();
+        var part = new TestFunctions.TestPart("blob", content, content.length) {
+            @Override
+            public InputStream openStream() {
+                return new SequenceInputStream(new ByteArrayInputStream(content), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+            }
+        };
+
+        var result = createSink().transferParts(List.of(part));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("connection reset");
+        verify(storageMock).writer(blob("blob"), eq(Storage.BlobWriteOption.doesNotExist()));
+        verify(writeChannel, never()).close();
+    }
+
+    @Test
+    void transferParts_limitsEveryChunkOfResumableUpload() throws InterruptedException {
+        var chunkSize = 256 * 1024;
+        var content = new byte[2 * chunkSize + 100];
+        var limiter = mock(AdaptiveConcurrencyLimiter.class);
+        var sink = createSinkBuilder().concurrencyLimiter(limiter).uploadChunkSize(chunkSize).build();
+
+        var result = sink.transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(writeChannel).setChunkSize(chunkSize);
+        // two full chunks, the remainder and the request finalizing the session
+        verify(limiter, times(4)).acquire();
+        verify(limiter, times(4)).onSuccess(any(Duration.class));
+        assertThat(written.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void transferParts_uploadsAllPartsAndReportsFailedOnes() {
+        var parts = IntStream.range(0, 10)
+                .mapToObj(i -> (DataSource.Part) new TestFunctions.TestPart("blob-" + i, ("content " + i).getBytes(), DataSource.Part.SIZE_UNKNOWN))
+                .collect(Collectors.toList());
+        when(storageMock.create(blob("blob-3"), any(byte[].class), any(Storage.BlobTargetOption.class)))
+                .thenThrow(new StorageException(412, "precondition failed"));
+
+        var result = createSink().transferParts(parts);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("1 of 10").contains("blob-3").doesNotContain("blob-4");
+        IntStream.range(0, 10).forEach(i -> verify(storageMock).create(blob("blob-" + i), any(byte[].class), any(Storage.BlobTargetOption.class)));
+    }
+
+    @Test
+    void transferParts_retriesThrottledSingleRequestUpload() {
+        var content = "small".getBytes();
+        when(storageMock.create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class)))
+                .thenThrow(new StorageException(429, "rate limit exceeded"))
+                .thenReturn(null);
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, times(2)).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+        assertThat(concurrencyLimiter.getLimit()).isEqualTo(2);
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void transferParts_slowsDownRequestRateWhenThrottled() {
+        var content = "small".getBytes();
+        var rateLimiter = new RequestRateLimiter(100, 1000, Duration.ofMinutes(20));
+        when(storageMock.create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class)))
+                .thenThrow(new StorageException(429, "rate limit exceeded"))
+                .thenReturn(null);
+
+        var result = createSinkBuilder().rateLimiters(bucketName -> rateLimiter).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(rateLimiter.getRate()).isEqualTo(50);
+    }
+
+    @Test
+    void transferParts_failsWhenThrottlingPersists() {
+        var content = "small".getBytes();
+        when(storageMock.create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class)))
+                .thenThrow(new StorageException(503, "service unavailable"));
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.failed()).isTrue();
+        verify(storageMock, times(3)).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+    }
+
+    @Test
+    void transferParts_compressesSmallPartWithGzip() throws IOException {
+        var content = "small".getBytes();
+
+        var result = createSinkBuilder().gzipCompression(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        var blobInfoCaptor = ArgumentCaptor.forClass(BlobInfo.class);
+        var contentCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(storageMock).create(blobInfoCaptor.capture(), contentCaptor.capture(), any(Storage.BlobTargetOption.class), any(Storage.BlobTargetOption.class));
+        assertThat(blobInfoCaptor.getValue().getContentEncoding()).isEqualTo("gzip");
+        assertThat(gunzip(contentCaptor.getValue())).isEqualTo(content);
+    }
+
+    @Test
+    void transferParts_compressesLargePartWithGzip() throws IOException {
+        var content = "a content larger than the threshold".repeat(100).getBytes();
+
+        var result = createSinkBuilder().gzipCompression(true).compressionLevel(9).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.succeeded()).isTrue();
+        var blobInfoCaptor = ArgumentCaptor.forClass(BlobInfo.class);
+        verify(storageMock).writer(blobInfoCaptor.capture(), any(Storage.BlobWriteOption.class), any(Storage.BlobWriteOption.class));
+        assertThat(blobInfoCaptor.getValue().getContentEncoding()).isEqualTo("gzip");
+        assertThat(written.size()).isLessThan(content.length);
+        assertThat(gunzip(written.toByteArray())).isEqualTo(content);
+    }
+
+    @Test
+    void transferParts_writesPartsUnderHashPrefixAndManifestOnComplete() throws IOException {
+        var strategy = TemplateBlobNameStrategy.hashPrefix(4);
+        var typeManager = new TypeManager();
+        var sink = createSinkBuilder()
+                .blobNameStrategy(strategy)
+                .manifestName("manifest.json")
+                .objectMapper(typeManager.getMapper())
+                .build();
+
+        var result = sink.transferParts(List.of(
+                new TestFunctions.TestPart("2023-10-01.csv", "a".getBytes(), 1),
+                new TestFunctions.TestPart("2023-10-02.csv", "b".getBytes(), 1)));
+        var completeResult = sink.complete();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        var first = strategy.physicalName("2023-10-01.csv");
+        var second = strategy.physicalName("2023-10-02.csv");
+        assertThat(first).matches("[0-9a-f]{4}/2023-10-01\\.csv");
+        verify(storageMock).create(blob(first), any(byte[].class), any(Storage.BlobTargetOption.class));
+        verify(storageMock).create(blob(second), any(byte[].class), any(Storage.BlobTargetOption.class));
+        var manifestCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(storageMock).create(eq(BlobInfo.newBuilder(BlobId.of(BUCKET_NAME, "manifest.json")).setContentType("application/json").build()),
+                manifestCaptor.capture(), eq(Storage.BlobTargetOption.doesNotExist()));
+        assertThat(typeManager.readValue(manifestCaptor.getValue(), Map.class))
+                .containsEntry("2023-10-01.csv", first)
+                .containsEntry("2023-10-02.csv", second);
+    }
+
+    @Test
+    void transferParts_fansOutToAllBucketsAndReportsFailedOnes() {
+        var content = "small".getBytes();
+        when(storageMock.create(blob("bucket-b", "blob"), any(byte[].class), any(Storage.BlobTargetOption.class)))
+                .thenThrow(new StorageException(403, "forbidden"));
+
+        var result = createSinkBuilder()
+                .bucketNames(List.of("bucket-a", "bucket-b", "bucket-c"))
+                .build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("1 of 3 buckets").contains("bucket-b").doesNotContain("bucket-a").doesNotContain("bucket-c");
+        verify(storageMock).create(blob("bucket-a", "blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+        verify(storageMock).create(blob("bucket-c", "blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+    }
+
+    @Test
+    void transferParts_failsDestinationsWhoseBranchIsRejected() {
+        var content = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes();
+        // admits a single branch, the others are rejected instead of queued
+        var singleBranchExecutorService = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new SynchronousQueue<>());
+
+        try {
+            var result = createSinkBuilder()
+                    .branchExecutorService(singleBranchExecutorService)
+                    .bucketNames(List.of("bucket-a", "bucket-b", "bucket-c"))
+                    .build()
+                    .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+            assertThat(result.failed()).isTrue();
+            assertThat(result.getFailureDetail()).contains("2 of 3 buckets").contains("No thread available");
+            assertThat(sessions.keySet()).hasSize(1);
+            assertThat(sessions.values().iterator().next().toByteArray()).isEqualTo(content);
+        } finally {
+            singleBranchExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void transferParts_sendsChecksumsWithSingleRequestUpload() {
+        var content = "small".getBytes();
+        var sink = createSinkBuilder().md5Checksum(true).build();
+
+        var result = sink.transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        var blobInfoCaptor = ArgumentCaptor.forClass(BlobInfo.class);
+        verify(storageMock).create(blobInfoCaptor.capture(), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+        assertThat(blobInfoCaptor.getValue().getCrc32c()).isEqualTo(crc32c(content));
+        assertThat(blobInfoCaptor.getValue().getMd5()).isEqualTo("61wTmahxIRx+ftcy0V46iw==");
+        assertThat(sink.complete().getContent()).asList().singleElement()
+                .extracting("crc32c").isEqualTo(crc32c(content));
+    }
+
+    @Test
+    void transferParts_verifiesChecksumOfResumableUpload() {
+        var content = "a content larger than the threshold".getBytes();
+        var sink = createSink();
+
+        var result = sink.transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(sink.complete().getContent()).asList().singleElement()
+                .extracting("crc32c").isEqualTo(crc32c(content));
+        verify(storageMock).get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class));
+        verify(storageMock, never()).delete(any(BlobId.class), any(Storage.BlobSourceOption[].class));
+    }
+
+    @Test
+    void transferParts_sendsKnownChecksumWithResumableUpload() {
+        var content = "a content larger than the threshold".getBytes();
+
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(null);
+
+        var result = createSinkBuilder().skipIdentical(true).build()
+                .transferParts(List.of(new ChecksummedTestPart("blob", content, crc32c(content))));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).writer(argThat(blobInfo -> crc32c(content).equals(blobInfo.getCrc32c())),
+                eq(Storage.BlobWriteOption.doesNotExist()), eq(Storage.BlobWriteOption.crc32cMatch()));
+        // only the lookup of an existing blob, the upload itself is not verified afterwards
+        verify(storageMock, times(1)).get(any(BlobId.class), any(Storage.BlobGetOption[].class));
+    }
+
+    @Test
+    void transferParts_doesNotAskForSizeAndChecksumUnlessNeeded() {
+        var content = "small".getBytes();
+        var part = new FailingMetadataPart("blob", content);
+
+        var result = createSink().transferParts(List.of(part));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+    }
+
+    @Test
+    void transferParts_reportsPartWhoseSizeCannotBeRead() {
+        var content = "small".getBytes();
+
+        var result = createSinkBuilder().skipIdentical(true).build()
+                .transferParts(List.of(new FailingMetadataPart("blob", content)));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("blob").contains("metadata not found");
+    }
+
+    @Test
+    void transferParts_failsAndDeletesBlobWhenChecksumDoesNotMatch() {
+        var content = "a content larger than the threshold".getBytes();
+        var corruptBlob = mock(Blob.class);
+        when(corruptBlob.getCrc32c()).thenReturn(crc32c("corrupt".getBytes()));
+        when(corruptBlob.getGeneration()).thenReturn(GENERATION);
+        when(storageMock.get(any(BlobId.class), any(Storage.BlobGetOption[].class))).thenReturn(corruptBlob);
+
+        var result = createSink().transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("Checksum mismatch");
+        verify(storageMock).delete(BlobId.of(BUCKET_NAME, "blob"), Storage.BlobSourceOption.generationMatch(GENERATION));
+    }
+
+    @Test
+    void transferParts_writesRowsIntoAvroFile() throws IOException {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.AVRO)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var schema = "{\"fields\":{\"name\":\"STRING\",\"count\":\"INTEGER\"}}".getBytes();
+        var first = "{\"__row__\":\"0\",\"name\":\"a\",\"count\":\"1\"}".getBytes();
+        var second = "{\"__row__\":\"1\",\"name\":\"b\",\"count\":null}".getBytes();
+
+        var schemaResult = sink.transferParts(List.of(new TestFunctions.TestPart("schema", schema, schema.length),
+                new TestFunctions.TestPart("row 0", first, first.length)));
+        var rowResult = sink.transferParts(List.of(new TestFunctions.TestPart("row 1", second, second.length)));
+        var completeResult = sink.complete();
+
+        assertThat(schemaResult.succeeded()).isTrue();
+        assertThat(rowResult.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        verify(storageMock).writer(blob("request-id-00000.avro"), eq(Storage.BlobWriteOption.doesNotExist()));
+        var records = new ArrayList<GenericRecord>();
+        try (var reader = new DataFileStream<>(new ByteArrayInputStream(written.toByteArray()), new GenericDatumReader<GenericRecord>())) {
+            reader.forEach(records::add);
+        }
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).get("name")).hasToString("a");
+        assertThat(records.get(0).get("count")).isEqualTo(1L);
+        assertThat(records.get(1).get("count")).isNull();
+    }
+
+    @Test
+    void transferParts_holdsRowsArrivingBeforeTheSchema() {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.CSV)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var schema = "{\"fields\":{\"id\":\"INTEGER\"}}".getBytes();
+        var row = "{\"__row__\":\"0\",\"id\":\"1\"}".getBytes();
+
+        var rowResult = sink.transferParts(List.of(new TestFunctions.TestPart("row 0", row, row.length)));
+        verify(storageMock, never()).writer(any(BlobInfo.class), any(Storage.BlobWriteOption[].class));
+        var schemaResult = sink.transferParts(List.of(new TestFunctions.TestPart("schema", schema, schema.length)));
+        var completeResult = sink.complete();
+
+        assertThat(rowResult.succeeded()).isTrue();
+        assertThat(schemaResult.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        assertThat(written.toString()).isEqualTo("id\r\n1\r\n");
+    }
+
+    @Test
+    void complete_failsWhenRowsNeverGotTheirSchema() {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.AVRO)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var row = "{\"__row__\":\"0\",\"id\":\"1\"}".getBytes();
+
+        sink.transferParts(List.of(new TestFunctions.TestPart("row 0", row, row.length)));
+        var completeResult = sink.complete();
+
+        assertThat(completeResult.failed()).isTrue();
+        assertThat(completeResult.getFailureDetail()).contains("No schema part received for 1 row parts");
+    }
+
+    @Test
+    void transferParts_failsWhenRowsBeforeTheSchemaExceedTheRowGroupSize() {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.AVRO)
+                .rowGroupSize(32)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var row = "{\"__row__\":\"0\",\"id\":\"1\"}".getBytes();
+
+        var first = sink.transferParts(List.of(new TestFunctions.TestPart("row 0", row, row.length)));
+        var second = sink.transferParts(List.of(new TestFunctions.TestPart("row 1", row, row.length)));
+
+        assertThat(first.succeeded()).isTrue();
+        assertThat(second.failed()).isTrue();
+        assertThat(second.getFailureDetail()).contains("exceed the row group size of 32 bytes");
+    }
+
+    @Test
+    void transferParts_appendsRowsToRollingNdjsonFiles() {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.NDJSON)
+                .fileNameTemplate(new FileNameTemplate("export/{name}-{seq:2}.ndjson"))
+                .maxFileRows(2)
+                .blobName("rows")
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var parts = IntStream.range(0, 3)
+                .mapToObj(i -> (DataSource.Part) new TestFunctions.TestPart("row " + i, ("{\"id\":" + i + "}").getBytes(), DataSource.Part.SIZE_UNKNOWN))
+                .collect(Collectors.toList());
+
+        var result = sink.transferParts(parts);
+        var completeResult = sink.complete();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        verify(storageMock).writer(blob("export/rows-00.ndjson"), eq(Storage.BlobWriteOption.doesNotExist()));
+        verify(storageMock).writer(blob("export/rows-01.ndjson"), eq(Storage.BlobWriteOption.doesNotExist()));
+        assertThat(written.toString()).isEqualTo("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    void transferParts_writesRollingFilesToAllBucketsAndReportsTheirChecksums() {
+        var sink = createSinkBuilder()
+                .bucketNames(List.of(BUCKET_NAME, "other-bucket"))
+                .rollingFormat(RollingFormat.NDJSON)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var row = "{\"id\":0}".getBytes();
+
+        var result = sink.transferParts(List.of(new TestFunctions.TestPart("row 0", row, row.length)));
+        var completeResult = sink.complete();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        verify(storageMock).writer(blob("request-id-00000.ndjson"), eq(Storage.BlobWriteOption.doesNotExist()));
+        verify(storageMock).writer(argThat(blobInfo -> blobInfo.getBucket().equals("other-bucket")), eq(Storage.BlobWriteOption.doesNotExist()));
+        assertThat(completeResult.getContent()).asList().hasSize(2)
+                .extracting("crc32c").containsOnly(crc32c("{\"id\":0}\n".getBytes()));
+    }
+
+    @Test
+    void transferParts_dropsFailingBucketFromRollingFilesAndWritesTheOthers() throws IOException {
+        var failingChannel = mock(WriteChannel.class);
+        when(failingChannel.write(any())).thenThrow(new StorageException(403, "forbidden"));
+        doReturn(failingChannel).when(storageMock).writer(argThat(blobInfo -> blobInfo.getBucket().equals("other-bucket")), any(Storage.BlobWriteOption[].class));
+        var sink = createSinkBuilder()
+                .bucketNames(List.of(BUCKET_NAME, "other-bucket"))
+                .rollingFormat(RollingFormat.NDJSON)
+                .maxFileRows(1)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var parts = IntStream.range(0, 2)
+                .mapToObj(i -> (DataSource.Part) new TestFunctions.TestPart("row " + i, ("{\"id\":" + i + "}").getBytes(), DataSource.Part.SIZE_UNKNOWN))
+                .collect(Collectors.toList());
+
+        var result = sink.transferParts(parts);
+        var completeResult = sink.complete();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(completeResult.failed()).isTrue();
+        assertThat(completeResult.getFailureDetail()).contains("1 of 2 buckets").contains("other-bucket").contains("forbidden");
+        verify(storageMock).writer(argThat(blobInfo -> blobInfo.getBucket().equals("other-bucket")), any(Storage.BlobWriteOption[].class));
+        verify(storageMock).writer(blob("request-id-00000.ndjson"), eq(Storage.BlobWriteOption.doesNotExist()));
+        verify(storageMock).writer(blob("request-id-00001.ndjson"), eq(Storage.BlobWriteOption.doesNotExist()));
+        assertThat(written.toString()).isEqualTo("{\"id\":0}\n{\"id\":1}\n");
+    }
+
+    @Test
+    void transferParts_appendsEveryRowOfNdjsonChunks() {
+        var sink = createSinkBuilder()
+                .rollingFormat(RollingFormat.CSV)
+                .objectMapper(new TypeManager().getMapper())
+                .build();
+        var schema = "{\"fields\":{\"id\":\"INTEGER\"}}".getBytes();
+        var chunk = "{\"__row__\":\"0\",\"id\":\"1\"}\n{\"__row__\":\"1\",\"id\":\"2\"}\n".getBytes();
+
+        var result = sink.transferParts(List.of(new TestFunctions.TestPart("schema", schema, schema.length),
+                new TestFunctions.TestPart("rows 0-1", chunk, chunk.length)));
+        var completeResult = sink.complete();
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(completeResult.succeeded()).isTrue();
+        assertThat(written.toString()).isEqualTo("id\r\n1\r\n2\r\n");
+    }
+
+    @Test
+    void transferParts_uploadsSpooledPartsAndDeletesSpoolFiles() throws IOException {
+        var content = "a content larger than the threshold".getBytes();
+        var spool = new DiskSpool(spoolDirectory, 1024);
+
+        var result = createSinkBuilder().diskSpool(spool).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(written.toByteArray()).isEqualTo(content);
+        verify(storageMock).writer(argThat(blobInfo -> crc32c(content).equals(blobInfo.getCrc32c())),
+                eq(Storage.BlobWriteOption.doesNotExist()), eq(Storage.BlobWriteOption.crc32cMatch()));
+        verify(storageMock, never()).get(any(BlobId.class), any(Storage.BlobGetOption[].class));
+        assertThat(spool.getUsed()).isZero();
+        try (var files = Files.list(spoolDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void transferParts_failsAndDeletesSpoolFileWhenUploadFails() throws IOException {
+        var content = "small".getBytes();
+        var spool = new DiskSpool(spoolDirectory, 1024);
+        when(storageMock.create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption[].class)))
+                .thenThrow(new StorageException(400, "bad request"));
+
+        var result = createSinkBuilder().diskSpool(spool).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(spool.getUsed()).isZero();
+        try (var files = Files.list(spoolDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void transferParts_skipsExistingBlobWithIdenticalContent() {
+        var content = "small".getBytes();
+        var existing = existingBlob("blob", content.length, crc32c(content));
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(existing);
+
+        var result = createSinkBuilder().skipIdentical(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption[].class));
+    }
+
+    @Test
+    void transferParts_replacesExistingBlobWithDifferentContentByGeneration() {
+        var content = "small".getBytes();
+        var existing = existingBlob("blob", content.length, crc32c("other".getBytes()));
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(existing);
+
+        var result = createSinkBuilder().skipIdentical(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob("blob"), eq(content), eq(Storage.BlobTargetOption.generationMatch(GENERATION)));
+    }
+
+    @Test
+    void transferParts_skipsLargePartWhenKnownChecksumMatches() {
+        var content = "a content larger than the threshold".getBytes();
+        var existing = existingBlob("blob", content.length, crc32c(content));
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(existing);
+
+        var result = createSinkBuilder().skipIdentical(true).build()
+                .transferParts(List.of(new ChecksummedTestPart("blob", content, crc32c(content))));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).writer(any(BlobInfo.class), any(Storage.BlobWriteOption[].class));
+    }
+
+    @Test
+    void transferParts_storesNewContentOnceAndWritesPointer() {
+        var content = "small".getBytes();
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, contentName)), any(Storage.BlobGetOption[].class))).thenReturn(null);
+
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(null);
+
+        var result = createSinkBuilder().contentAddressed(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob(contentName), eq(content), eq(Storage.BlobTargetOption.doesNotExist()));
+        verify(storageMock).create(argThat(blobInfo -> blobInfo.getName().equals("blob") &&
+                contentName.equals(blobInfo.getMetadata().get(GcsDataSink.POINTER_METADATA_KEY))), eq(contentName.getBytes()), any(Storage.BlobTargetOption.class));
+    }
+
+    @Test
+    void transferParts_skipsUploadOfStoredContent() {
+        var content = "small".getBytes();
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(null);
+
+        var result = createSinkBuilder().contentAddressed(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).create(blob(contentName), any(byte[].class), any(Storage.BlobTargetOption[].class));
+        verify(storageMock).create(blob("blob"), eq(contentName.getBytes()), any(Storage.BlobTargetOption.class));
+    }
+
+    @Test
+    void transferParts_keepsIdenticalPointerOnRerun() {
+        var content = "small".getBytes();
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+        var pointer = existingPointer(contentName);
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(pointer);
+
+        var result = createSinkBuilder().contentAddressed(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).create(blob("blob"), any(byte[].class), any(Storage.BlobTargetOption[].class));
+    }
+
+    @Test
+    void transferParts_replacesDifferingPointerByGeneration() {
+        var content = "small".getBytes();
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+        var pointer = existingPointer(GcsDataSink.DEFAULT_CONTENT_PREFIX + "other");
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(pointer);
+
+        var result = createSinkBuilder().contentAddressed(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, content.length)));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock).create(blob("blob"), eq(contentName.getBytes()), eq(Storage.BlobTargetOption.generationMatch(GENERATION)));
+    }
+
+    @Test
+    void transferParts_hashesLargePartWhileUploadingAndCopiesItToContentName() {
+        var content = "a content larger than the threshold".getBytes();
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, contentName)), any(Storage.BlobGetOption[].class))).thenReturn(null);
+        when(storageMock.copy(any(Storage.CopyRequest.class))).thenReturn(mock(CopyWriter.class));
+
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(null);
+
+        var result = createSinkBuilder().contentAddressed(true).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(written.toByteArray()).isEqualTo(content);
+        var copyRequest = ArgumentCaptor.forClass(Storage.CopyRequest.class);
+        verify(storageMock).copy(copyRequest.capture());
+        assertThat(copyRequest.getValue().getSource().getName()).startsWith(GcsDataSink.DEFAULT_CONTENT_PREFIX + "incoming/");
+        assertThat(copyRequest.getValue().getTarget().getName()).isEqualTo(contentName);
+        verify(storageMock).delete(copyRequest.getValue().getSource());
+    }
+
+    @Test
+    void transferParts_reportsCopyErrorWhenTemporaryObjectCannotBeDeleted() {
+        var content = "a content larger than the threshold".getBytes();
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, "blob")), any(Storage.BlobGetOption[].class))).thenReturn(null);
+        var contentName = GcsDataSink.DEFAULT_CONTENT_PREFIX + Hashing.sha256().hashBytes(content);
+        when(storageMock.get(eq(BlobId.of(BUCKET_NAME, contentName)), any(Storage.BlobGetOption[].class))).thenReturn(null);
+        when(storageMock.copy(any(Storage.CopyRequest.class))).thenThrow(new StorageException(403, "copy forbidden"));
+        when(storageMock.delete(any(BlobId.class))).thenThrow(new StorageException(500, "delete failed"));
+        var monitor = mock(Monitor.class);
+
+        var result = createSinkBuilder().contentAddressed(true).monitor(monitor).build()
+                .transferParts(List.of(new TestFunctions.TestPart("blob", content, DataSource.Part.SIZE_UNKNOWN)));
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("copy forbidden").doesNotContain("delete failed");
+        verify(monitor).warning(ArgumentMatchers.<String>argThat(message -> message.startsWith("Error deleting temporary object")), any(StorageException.class));
+        var error = ArgumentCaptor.forClass(Throwable.class);
+        verify(monitor).severe(any(String.class), error.capture());
+        assertThat(error.getValue().getSuppressed()).singleElement().extracting(Throwable::getMessage).isEqualTo("delete failed");
+    }
+
+    @Test
+    void complete_writesNoManifestByDefault() {
+        var result = createSink().complete();
+
+        assertThat(result.succeeded()).isTrue();
+        verify(storageMock, never()).create(any(BlobInfo.class), any(byte[].class), any(Storage.BlobTargetOption.class));
+    }
+
+    private Blob existingBlob(String blobName, long size, String crc32c) {
+        var existing = mock(Blob.class);
+        when(existing.getBucket()).thenReturn(BUCKET_NAME);
+        when(existing.getName()).thenReturn(blobName);
+        when(existing.getSize()).thenReturn(size);
+        when(existing.getCrc32c()).thenReturn(crc32c);
+        when(existing.getGeneration()).thenReturn(GENERATION);
+        return existing;
+    }
+
+    private Blob existingPointer(String contentName) {
+        var existing = mock(Blob.class);
+        when(existing.getMetadata()).thenReturn(Map.of(GcsDataSink.POINTER_METADATA_KEY, contentName));
+        when(existing.getGeneration()).thenReturn(GENERATION);
+        return existing;
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return input.readAllBytes();
+        }
+    }
+
+    private GcsDataSink createSink() {
+        return createSinkBuilder().build();
+    }
+
+    private GcsDataSink.Builder createSinkBuilder() {
+        return GcsDataSink.Builder.newInstance()
+                .storageClient(storageMock)
+                .bucketName(BUCKET_NAME)
+                .singleUploadThreshold(THRESHOLD)
+                .maxConcurrentUploads(2)
+                .uploadExecutorService(uploadExecutorService)
+                .branchExecutorService(branchExecutorService)
+                .concurrencyLimiter(concurrencyLimiter)
+                .maxRetries(2)
+                .retryBaseDelay(Duration.ofMillis(1))
+                .requestId("request-id")
+                .executorService(mock(ExecutorService.class))
+                .monitor(mock(Monitor.class));
+    }
+
+    private BlobInfo blob(String blobName) {
+        return blob(BUCKET_NAME, blobName);
+    }
+
+    private BlobInfo blob(String bucketName, String blobName) {
+        return argThat(blobInfo -> blobInfo.getBlobId().equals(BlobId.of(bucketName, blobName)));
+    }
+
+    private static class ChecksummedTestPart extends TestFunctions.TestPart implements ChecksummedPart {
+        private final String crc32c;
+
+        ChecksummedTestPart(String name, byte[] content, String crc32c) {
+            super(name, content, content.length);
+            this.crc32c = crc32c;
+        }
+
+        @Override
+        public String crc32c() {
+            return crc32c;
+        }
+    }
+
+    /**
+     * Fails like a source part whose metadata request fails.
+     */
+    private static class FailingMetadataPart extends TestFunctions.TestPart implements ChecksummedPart {
+        FailingMetadataPart(String name, byte[] content) {
+            super(name, content, content.length);
+        }
+
+        @Override
+        public long size() {
+            throw new EdcException("metadata not found");
+        }
+
+        @Override
+        public String crc32c() {
+            throw new EdcException("metadata not found");
+        }
+    }
+
+    /**
+     * Returns a channel writing into the session and into all content written.
+     */
+    private WriteChannel writeChannel(ByteArrayOutputStream session) throws IOException {
+        var channel = mock(WriteChannel.class);
+        when(channel.write(any())).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            var length = buffer.remaining();
+            var bytes = new byte[length];
+            buffer.get(bytes);
+            written.write(bytes);
+            session.write(bytes);
+            return length;
+        });
+        return channel;
+    }
+
+    private static String crc32c(byte[] content) {
+        var crc32c = new CRC32C();
+        crc32c.update(content);
+        return BaseEncoding.base64().encode(Ints.toByteArray((int) crc32c.getValue()));
+    }
+}
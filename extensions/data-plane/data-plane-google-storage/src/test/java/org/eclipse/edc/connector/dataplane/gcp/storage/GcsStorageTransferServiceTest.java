@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage;
+
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.FakeStorageTransferClient;
+import org.eclipse.edc.connector.dataplane.gcp.storage.transfer.TransferProgress;
+import org.eclipse.edc.gcp.storage.GcsStoreSchema;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class GcsStorageTransferServiceTest {
+
+    private static final String PROJECT_ID = "test-project";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final FakeStorageTransferClient client = new FakeStorageTransferClient();
+    private final GcsStorageTransferService transferService = new GcsStorageTransferService(client, scheduler,
+            Duration.ofMillis(5), PROJECT_ID, mock(Monitor.class));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void canHandle_requiresStorageTransferServiceOnDestination() {
+        assertThat(transferService.canHandle(createRequest(destination("true")))).isTrue();
+        assertThat(transferService.canHandle(createRequest(destination(null)))).isFalse();
+    }
+
+    @Test
+    void validate_shouldFailIfPrefixDoesNotEndWithSlash() {
+        var destination = destination("true").property(GcsStoreSchema.BLOB_PREFIX, "no-slash");
+
+        var result = transferService.validate(createRequest(destination));
+
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void transfer_startsJobForPrefixAndCompletesWhenOperationSucceeded() throws Exception {
+        client.progress(
+                new TransferProgress(TransferProgress.State.RUNNING, 1, 10, 0, null),
+                new TransferProgress(TransferProgress.State.SUCCEEDED, 2, 20, 0, null));
+
+        var result = transferService.transfer(createRequest(destination("true").property(GcsStoreSchema.BLOB_PREFIX, "copy/")))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(client.getRequests()).singleElement().satisfies(request -> {
+            assertThat(request.getProjectId()).isEqualTo(PROJECT_ID);
+            assertThat(request.getSourceBucket()).isEqualTo("source-bucket");
+            assertThat(request.getSourcePrefix()).isEqualTo("data/");
+            assertThat(request.getDestinationBucket()).isEqualTo("destination-bucket");
+            assertThat(request.getDestinationPrefix()).isEqualTo("copy/");
+        });
+        assertThat(client.getDeletedJobOperations()).containsExactly("transferOperations/operation-1");
+    }
+
+    @Test
+    void transfer_failsWhenObjectsFailed() throws Exception {
+        client.progress(new TransferProgress(TransferProgress.State.FAILED, 1, 10, 3, "PERMISSION_DENIED (3)"));
+
+        var result = transferService.transfer(createRequest(destination("true"))).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("3 failed").contains("PERMISSION_DENIED");
+        assertThat(client.getDeletedJobOperations()).containsExactly("transferOperations/operation-1");
+    }
+
+    @Test
+    void transfer_cancelsOperationWhenCancelled() {
+        client.progress(new TransferProgress(TransferProgress.State.RUNNING, 0, 0, 0, null));
+
+        transferService.transfer(createRequest(destination("true"))).cancel(true);
+
+        assertThat(client.getCancelledOperations()).containsExactly("transferOperations/operation-1");
+        assertThat(client.getDeletedJobOperations()).containsExactly("transferOperations/operation-1");
+    }
+
+    private DataAddress.Builder destination(String storageTransferService) {
+        var destination = DataAddress.Builder.newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "destination-bucket");
+        if (storageTransferService != null) {
+            destination.property(GcsStoreSchema.STORAGE_TRANSFER_SERVICE, storageTransferService);
+        }
+        return destination;
+    }
+
+    private DataFlowRequest createRequest(DataAddress.Builder destination) {
+        var source = DataAddress.Builder.newInstance()
+                .type(GcsStoreSchema.TYPE)
+                .property(GcsStoreSchema.BUCKET_NAME, "source-bucket")
+                .property(GcsStoreSchema.BLOB_PREFIX, "data/")
+                .build();
+        return DataFlowRequest.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .processId(UUID.randomUUID().toString())
+                .sourceDataAddress(source)
+                .destinationDataAddress(destination.build())
+                .build();
+    }
+}
@@ -14,10 +14,13 @@
 
 package org.eclipse.edc.connector.dataplane.gcp.storage;
 
+import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.gcp.storage.GcsStoreSchema;
 import org.eclipse.edc.spi.types.domain.DataAddress;
 import org.eclipse.edc.spi.types.domain.transfer.DataFlowRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.UUID;
 
 public class TestFunctions {
@@ -35,4 +38,31 @@ public class TestFunctions {
         return DataAddress.Builder.newInstance().type(type);
     }
 
+    public static class TestPart implements DataSource.Part {
+        private final String name;
+        private final byte[] content;
+        private final long size;
+
+        public TestPart(String name, byte[] content, long size) {
+            this.name = name;
+            this.content = content;
+            this.size = size;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(content);
+        }
+    }
+
 }
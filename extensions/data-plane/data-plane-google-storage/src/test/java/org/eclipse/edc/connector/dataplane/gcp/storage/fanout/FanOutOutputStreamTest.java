@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.fanout;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FanOutOutputStreamTest {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void write_handsAllBytesToEveryBranch() throws Exception {
+        var content = "fan-out content ".repeat(1000).getBytes();
+        var fanOut = new FanOutOutputStream(64, 2, 3);
+        var first = readAsync(fanOut.branch(0));
+        var second = readAsync(fanOut.branch(1));
+        var third = readAsync(fanOut.branch(2));
+
+        fanOut.write(content);
+        fanOut.close();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(content);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(content);
+        assertThat(third.get(10, TimeUnit.SECONDS)).isEqualTo(content);
+    }
+
+    @Test
+    void write_continuesWhenBranchIsClosed() throws Exception {
+        var content = "fan-out content ".repeat(1000).getBytes();
+        var fanOut = new FanOutOutputStream(64, 2, 2);
+        fanOut.branch(1).close();
+        var first = readAsync(fanOut.branch(0));
+
+        fanOut.write(content);
+        fanOut.close();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(content);
+    }
+
+    @Test
+    void abort_failsBranches() throws Exception {
+        var fanOut = new FanOutOutputStream(64, 2, 1);
+        var branch = fanOut.branch(0);
+
+        fanOut.write("partial".getBytes());
+        fanOut.abort(new IOException("source failed"));
+
+        assertThatThrownBy(branch::readAllBytes).isInstanceOf(IOException.class);
+    }
+
+    private CompletableFuture<byte[]> readAsync(InputStream branch) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (branch) {
+                return branch.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executorService);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration THRESHOLD = Duration.ofSeconds(1);
+
+    @Test
+    void onSuccess_growsLimitAdditivelyWhenLatencyIsHealthy() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 10, THRESHOLD);
+
+        // grows by 1/limit per write, i.e. by about one per limit's worth of writes
+        for (var i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onSuccess(Duration.ofMillis(10));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void onSuccess_keepsLimitWhenLatencyIsAboveThreshold() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 10, THRESHOLD);
+
+        limiter.acquire();
+        limiter.onSuccess(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void onSuccess_doesNotGrowBeyondMaxLimit() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 2, THRESHOLD);
+
+        limiter.acquire();
+        limiter.onSuccess(Duration.ZERO);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void onThrottled_cutsLimitMultiplicativelyDownToOne() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 10, THRESHOLD);
+
+        limiter.acquire();
+        limiter.onThrottled();
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (var i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onThrottled();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_blocksWhileLimitIsReached() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, THRESHOLD);
+        limiter.acquire();
+
+        var second = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+        limiter.onFailure();
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestRateLimiterTest {
+
+    private static final Duration RAMP_INTERVAL = Duration.ofSeconds(20);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void tryAcquire_limitsBurstToOneSecondOfTokens() {
+        var limiter = new RequestRateLimiter(10, 100, RAMP_INTERVAL, now::get);
+
+        for (var i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isZero();
+        }
+
+        assertThat(limiter.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        advance(Duration.ofMillis(100));
+        assertThat(limiter.tryAcquire()).isZero();
+    }
+
+    @Test
+    void getRate_doublesAfterEverySaturatedRampIntervalUpToMaxRate() {
+        var limiter = new RequestRateLimiter(10, 30, RAMP_INTERVAL, now::get);
+
+        saturate(limiter, RAMP_INTERVAL);
+        assertThat(limiter.getRate()).isEqualTo(20);
+
+        saturate(limiter, RAMP_INTERVAL.multipliedBy(3));
+        assertThat(limiter.getRate()).isEqualTo(30);
+    }
+
+    @Test
+    void getRate_keepsRateWhileRequestsStayBelowIt() {
+        var limiter = new RequestRateLimiter(10, 100, RAMP_INTERVAL, now::get);
+
+        for (var i = 0; i < 3 * RAMP_INTERVAL.toSeconds(); i++) {
+            assertThat(limiter.tryAcquire()).isZero();
+            advance(Duration.ofSeconds(1));
+        }
+
+        assertThat(limiter.getRate()).isEqualTo(10);
+    }
+
+    @Test
+    void getRate_dropsBackToInitialRateAfterIdleRampInterval() {
+        var limiter = new RequestRateLimiter(10, 100, RAMP_INTERVAL, now::get);
+        saturate(limiter, RAMP_INTERVAL.multipliedBy(2));
+        assertThat(limiter.getRate()).isEqualTo(40);
+
+        advance(RAMP_INTERVAL);
+
+        assertThat(limiter.getRate()).isEqualTo(10);
+    }
+
+    @Test
+    void onThrottled_halvesRateAndRestartsRamp() {
+        var limiter = new RequestRateLimiter(16, 100, RAMP_INTERVAL, now::get);
+        saturate(limiter, RAMP_INTERVAL.minusSeconds(1));
+
+        limiter.onThrottled();
+        saturate(limiter, Duration.ofSeconds(1));
+
+        assertThat(limiter.getRate()).isEqualTo(8);
+        saturate(limiter, RAMP_INTERVAL.minusSeconds(1));
+        assertThat(limiter.getRate()).isEqualTo(16);
+    }
+
+    @Test
+    void onThrottled_keepsMinimumRate() {
+        var limiter = new RequestRateLimiter(1, 100, RAMP_INTERVAL, now::get);
+
+        limiter.onThrottled();
+
+        assertThat(limiter.getRate()).isEqualTo(1);
+    }
+
+    /**
+     * Sends requests as fast as the limiter admits them for the duration.
+     */
+    private void saturate(RequestRateLimiter limiter, Duration duration) {
+        var end = now.get() + duration.toNanos();
+        while (now.get() < end) {
+            var wait = limiter.tryAcquire();
+            if (wait > 0) {
+                now.addAndGet(Math.min(wait, end - now.get()));
+            }
+        }
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
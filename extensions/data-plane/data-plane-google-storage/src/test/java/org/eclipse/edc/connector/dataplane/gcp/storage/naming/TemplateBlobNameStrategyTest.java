@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.naming;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateBlobNameStrategyTest {
+
+    // SHA-256 of "part-1"
+    private static final String HASH = "0543cf94c5dce225bc7708829029e777b6a73381cda354ca07bd81199e4ddcca";
+
+    @Test
+    void physicalName_replacesNameAndHashTokens() {
+        var strategy = new TemplateBlobNameStrategy("data/{hash}/{hash:2}-{name}");
+
+        var physicalName = strategy.physicalName("part-1");
+
+        assertThat(physicalName).isEqualTo("data/" + HASH.substring(0, 8) + "/" + HASH.substring(0, 2) + "-part-1");
+    }
+
+    @Test
+    void physicalName_isStableForSameName() {
+        var strategy = TemplateBlobNameStrategy.hashPrefix(4);
+
+        assertThat(strategy.physicalName("part-1")).isEqualTo(strategy.physicalName("part-1"));
+        assertThat(strategy.physicalName("part-1")).isEqualTo(HASH.substring(0, 4) + "/part-1");
+    }
+
+    @Test
+    void physicalName_keepsNameWithSpecialCharacters() {
+        var strategy = TemplateBlobNameStrategy.hashPrefix(1);
+
+        assertThat(strategy.physicalName("a$1\\b")).endsWith("/a$1\\b");
+    }
+
+    @Test
+    void constructor_rejectsTemplateWithoutName() {
+        assertThatThrownBy(() -> new TemplateBlobNameStrategy("{hash}")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructor_rejectsInvalidHashLength() {
+        assertThatThrownBy(() -> new TemplateBlobNameStrategy("{hash:0}{name}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TemplateBlobNameStrategy("{hash:65}{name}")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.rolling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RollingWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RowSchemaConverter converter = new RowSchemaConverter(objectMapper);
+    private final List<ByteArrayOutputStream> files = new ArrayList<>();
+
+    @Test
+    void avro_rollsFilesAtTargetSize() throws IOException {
+        var schema = converter.readSchema(stream("{\"fields\":{\"id\":\"INTEGER\",\"payload\":\"STRING\"}}"));
+
+        try (var writer = new RollingAvroWriter(schema, converter, this::openFile, new RollPolicy(1024, Long.MAX_VALUE, null), 256, Clock.systemUTC())) {
+            for (var i = 0; i < 200; i++) {
+                writer.append(row("{\"id\":" + i + ",\"payload\":\"row " + i + "\"}"));
+            }
+        }
+
+        assertThat(files).hasSizeGreaterThan(1);
+        var ids = new ArrayList<Long>();
+        for (var file : files) {
+            assertThat(file.size()).isLessThan(1024 + 512);
+            readAvro(file.toByteArray()).forEach(record -> ids.add((Long) record.get("id")));
+        }
+        assertThat(ids).hasSize(200).isSorted();
+    }
+
+    @Test
+    void ndjson_rollsFilesAtRowCount() throws IOException {
+        try (var writer = new RollingTextWriter(null, converter::toJsonLine, this::openFile, new RollPolicy(Long.MAX_VALUE, 2, null), Clock.systemUTC())) {
+            for (var i = 0; i < 5; i++) {
+                writer.append(row("{\n  \"id\": " + i + "\n}"));
+            }
+            assertThat(writer.getFileCount()).isEqualTo(3);
+        }
+
+        assertThat(files).extracting(ByteArrayOutputStream::toString)
+                .containsExactly("{\"id\":0}\n{\"id\":1}\n", "{\"id\":2}\n{\"id\":3}\n", "{\"id\":4}\n");
+    }
+
+    @Test
+    void csv_writesHeaderIntoEveryFileAndRollsAtAge() throws IOException {
+        var schema = converter.readSchema(stream("{\"fields\":{\"id\":\"INTEGER\",\"name\":\"STRING\"}}"));
+        var now = new AtomicReference<>(Instant.parse("2023-10-01T00:00:00Z"));
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+
+        try (var writer = new RollingTextWriter(converter.csvHeader(schema), row -> converter.toCsvLine(schema, row),
+                this::openFile, new RollPolicy(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofMinutes(1)), clock)) {
+            writer.append(row("{\"id\":\"1\",\"name\":\"a, \\\"b\\\"\"}"));
+            now.set(now.get().plusSeconds(61));
+            writer.append(row("{\"id\":\"2\",\"name\":null}"));
+        }
+
+        assertThat(files).extracting(ByteArrayOutputStream::toString)
+                .containsExactly("id,name\r\n1,\"a, \"\"b\"\"\"\r\n", "id,name\r\n2,\r\n");
+    }
+
+    @Test
+    void readSchema_mapsColumnTypes() throws IOException {
+        var schema = converter.readSchema(stream("{\"fields\":{\"b\":\"BOOLEAN\",\"f\":\"FLOAT\",\"i\":\"INTEGER\",\"n\":\"NUMERIC\"}}"));
+
+        var record = converter.readRow(schema, row("{\"b\":\"true\",\"f\":1.5,\"i\":\"7\",\"n\":\"1.10\",\"other\":\"x\"}"));
+
+        assertThat(record.get("b")).isEqualTo(true);
+        assertThat(record.get("f")).isEqualTo(1.5);
+        assertThat(record.get("i")).isEqualTo(7L);
+        assertThat(record.get("n")).isEqualTo("1.10");
+    }
+
+    @Test
+    void readRow_failsOnInvalidNumber() throws IOException {
+        var schema = converter.readSchema(stream("{\"fields\":{\"i\":\"INTEGER\"}}"));
+
+        assertThatThrownBy(() -> converter.readRow(schema, row("{\"i\":\"seven\"}"))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readRows_splitsNdjsonChunk() throws IOException {
+        var rows = converter.readRows(stream("{\"id\":1}\n{\"id\":2}\n\n{\"id\":3}\n"));
+
+        var ids = new ArrayList<Integer>();
+        rows.forEachRemaining(row -> ids.add(row.get("id").asInt()));
+
+        assertThat(ids).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void fileNameTemplate_insertsPaddedSequence() {
+        assertThat(FileNameTemplate.defaultTemplate(RollingFormat.CSV).fileName("export", 7)).isEqualTo("export-00007.csv");
+        assertThat(new FileNameTemplate("out/{name}/part-{seq:3}.json").fileName("export", 12)).isEqualTo("out/export/part-012.json");
+        assertThatThrownBy(() -> new FileNameTemplate("{name}.csv")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ByteArrayOutputStream openFile(int sequence) {
+        var file = new ByteArrayOutputStream();
+        files.add(file);
+        return file;
+    }
+
+    private ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes());
+    }
+
+    private JsonNode row(String json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+    private List<GenericRecord> readAvro(byte[] file) throws IOException {
+        var records = new ArrayList<GenericRecord>();
+        try (var reader = new DataFileStream<>(new ByteArrayInputStream(file), new GenericDatumReader<GenericRecord>())) {
+            reader.forEach(records::add);
+        }
+        return records;
+    }
+}
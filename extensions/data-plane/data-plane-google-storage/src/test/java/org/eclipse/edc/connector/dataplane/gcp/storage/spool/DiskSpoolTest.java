@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiskSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spool_storesContentThatCanBeReadRepeatedly() throws IOException {
+        var content = "spooled content".getBytes();
+        var spool = new DiskSpool(directory, 1024);
+
+        try (var spoolFile = spool.spool(new ByteArrayInputStream(content))) {
+            assertThat(spoolFile.size()).isEqualTo(content.length);
+            assertThat(spool.getUsed()).isEqualTo(content.length);
+            try (var first = spoolFile.openStream(); var second = spoolFile.openStream()) {
+                assertThat(first.readAllBytes()).isEqualTo(content);
+                assertThat(second.readAllBytes()).isEqualTo(content);
+            }
+        }
+    }
+
+    @Test
+    void close_deletesFileAndReleasesCapacity() throws IOException {
+        var spool = new DiskSpool(directory, 1024);
+
+        var spoolFile = spool.spool(new ByteArrayInputStream(new byte[100]));
+        spoolFile.close();
+        spoolFile.close();
+
+        assertThat(spool.getUsed()).isZero();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void spool_acceptsContentFillingCapacityExactly() throws IOException {
+        var spool = new DiskSpool(directory, 100);
+
+        try (var spoolFile = spool.spool(new ByteArrayInputStream(new byte[100]))) {
+            assertThat(spoolFile.size()).isEqualTo(100);
+            assertThat(spool.hasCapacity(1)).isFalse();
+        }
+    }
+
+    @Test
+    void spool_failsAndCleansUpWhenCapacityIsExhausted() throws IOException {
+        var spool = new DiskSpool(directory, 100);
+
+        assertThatThrownBy(() -> spool.spool(new ByteArrayInputStream(new byte[101])))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exhausted");
+
+        assertThat(spool.getUsed()).isZero();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2022 T-Systems International GmbH
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       T-Systems International GmbH
+ *
+ */
+
+package org.eclipse.edc.connector.dataplane.gcp.storage.transfer;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Local stand-in for the Storage Transfer Service that records the started transfers and replays scripted progress.
+ */
+public class FakeStorageTransferClient implements StorageTransferClient {
+    private final List<StorageTransferRequest> requests = new CopyOnWriteArrayList<>();
+    private final List<String> cancelledOperations = new CopyOnWriteArrayList<>();
+    private final List<String> deletedJobOperations = new CopyOnWriteArrayList<>();
+    private final Deque<TransferProgress> progress = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Scripts the progress returned by consecutive polls, the last one is repeated.
+     */
+    public FakeStorageTransferClient progress(TransferProgress... progress) {
+        this.progress.addAll(List.of(progress));
+        return this;
+    }
+
+    public List<StorageTransferRequest> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    public List<String> getCancelledOperations() {
+        return new ArrayList<>(cancelledOperations);
+    }
+
+    public List<String> getDeletedJobOperations() {
+        return new ArrayList<>(deletedJobOperations);
+    }
+
+    @Override
+    public String startTransfer(StorageTransferRequest request) {
+        requests.add(request);
+        return "transferOperations/operation-" + requests.size();
+    }
+
+    @Override
+    public TransferProgress getProgress(String operationName) {
+        return progress.size() > 1 ? progress.poll() : progress.peek();
+    }
+
+    @Override
+    public void cancel(String operationName) {
+        cancelledOperations.add(operationName);
+    }
+
+    @Override
+    public void deleteJob(String operationName) {
+        deletedJobOperations.add(operationName);
+    }
+}